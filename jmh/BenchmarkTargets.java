@@ -0,0 +1,177 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Operations measured by the benchmarks, kept in the default package
+ * next to the classes they exercise
+ */
+final class BenchmarkTargets {
+
+    private BenchmarkTargets() {
+    }
+
+    static final class Item implements Comparable<Item>, BucketPQ.Item {
+        private final int priority;
+
+        private Item(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public int priority() {
+            return priority;
+        }
+
+        @Override
+        public int compareTo(Item other) {
+            return priority - other.priority;
+        }
+    }
+
+    // solvable boards reached from the goal by random walks, so every
+    // run of a suite with the same seed solves the same boards
+    static Object[] randomBoards(int dimension, int count, int walk,
+                                 long seed) {
+        Random random = new Random(seed);
+        Object[] boards = new Object[count];
+        for (int i = 0; i < count; i++) {
+            Board board = new Board(goalBlocks(dimension));
+            Board prev = null;
+            for (int step = 0; step < walk; step++) {
+                List<Board> next = new ArrayList<>();
+                for (Board neighbor : board.neighbors()) {
+                    if (!neighbor.equals(prev)) {
+                        next.add(neighbor);
+                    }
+                }
+                prev = board;
+                board = next.get(random.nextInt(next.size()));
+            }
+            boards[i] = board;
+        }
+
+        return boards;
+    }
+
+    // boards in the standard input format, one after another
+    static Object[] loadBoards(String path) throws IOException {
+        List<Board> boards = new ArrayList<>();
+        try (PuzzleReader reader = PuzzleReader.open(Paths.get(path))) {
+            Board board;
+            while ((board = reader.next()) != null) {
+                boards.add(board);
+            }
+        }
+
+        return boards.toArray();
+    }
+
+    static int[][] goalBlocks(int dimension) {
+        int[][] blocks = new int[dimension][dimension];
+        for (int i = 0; i < dimension * dimension; i++) {
+            blocks[i / dimension][i % dimension] =
+                (i + 1) % (dimension * dimension);
+        }
+
+        return blocks;
+    }
+
+    static Object newBoard(int[][] blocks) {
+        return new Board(blocks);
+    }
+
+    static int neighbors(Object board) {
+        int sum = 0;
+        for (Board neighbor : ((Board) board).neighbors()) {
+            sum += neighbor.manhattan();
+        }
+
+        return sum;
+    }
+
+    static Object mutableBoard(Object board) {
+        return new MutableBoard((Board) board);
+    }
+
+    static int applyMoves(Object board) {
+        MutableBoard mutable = (MutableBoard) board;
+        int sum = 0;
+        for (int legal = mutable.legalMoves(); legal != 0;
+                legal &= legal - 1) {
+            Move move = Move.of(Integer.numberOfTrailingZeros(legal));
+            mutable.applyMove(move);
+            sum += mutable.manhattan();
+            mutable.undoMove(move);
+        }
+
+        return sum;
+    }
+
+    static int linearConflict(Object board) {
+        return new LinearConflictHeuristic().estimate((Board) board);
+    }
+
+    static boolean equalBoards(Object board, Object other) {
+        return board.equals(other);
+    }
+
+    static int boardHashCode(Object board) {
+        return board.hashCode();
+    }
+
+    static Object boardKey(Object board) {
+        return ((Board) board).key();
+    }
+
+    static Object[] queueItems(int count, int maxPriority, long seed) {
+        Random random = new Random(seed);
+        Object[] items = new Object[count];
+        for (int i = 0; i < count; i++) {
+            items[i] = new Item(random.nextInt(maxPriority));
+        }
+
+        return items;
+    }
+
+    // adds every item, then polls them all back
+    static int fillAndDrain(String frontier, Object[] items) {
+        SearchQueue<Item> queue;
+        if (SolverOptions.Frontier.valueOf(frontier)
+            == SolverOptions.Frontier.BUCKET) {
+            queue = new BucketPQ<>();
+        } else {
+            queue = new MinPQ<>();
+        }
+
+        for (Object item : items) {
+            queue.add((Item) item);
+        }
+        int last = 0;
+        while (queue.size() > 0) {
+            last = queue.poll().priority;
+        }
+
+        return last;
+    }
+
+    static Object solverOptions(String algorithm, String frontier,
+                                String heuristic, int threads) {
+        SolverOptions options = new SolverOptions()
+            .algorithm(SolverOptions.Algorithm.valueOf(algorithm))
+            .frontier(SolverOptions.Frontier.valueOf(frontier))
+            .threads(threads);
+        if (heuristic.equals("linear-conflict")) {
+            options.heuristic(new LinearConflictHeuristic());
+        }
+
+        return options;
+    }
+
+    static int solve(Object board, Object options) {
+        return new Solver((Board) board, (SolverOptions) options).moves();
+    }
+
+}
@@ -0,0 +1,85 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Board operations run for every node of a search
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"3", "4", "5"})
+    private int dimension;
+
+    private int[][] blocks;
+    private Object board;
+    private Object copy;
+    private Object mutable;
+
+    @Setup
+    public void setUp() throws Throwable {
+        Object[] boards = (Object[]) Targets.RANDOM_BOARDS.invokeExact(
+            dimension, 1, 1000, 42L);
+        board = boards[0];
+        String[] items = board.toString().trim().split("\\s+");
+        blocks = new int[dimension][dimension];
+        for (int i = 0; i < dimension * dimension; i++) {
+            blocks[i / dimension][i % dimension] = Integer.parseInt(items[i + 1]);
+        }
+        copy = (Object) Targets.NEW_BOARD.invokeExact(blocks);
+        mutable = (Object) Targets.MUTABLE_BOARD.invokeExact(board);
+    }
+
+    @Benchmark
+    public Object construct() throws Throwable {
+        return (Object) Targets.NEW_BOARD.invokeExact(blocks);
+    }
+
+    @Benchmark
+    public int neighbors() throws Throwable {
+        return (int) Targets.NEIGHBORS.invokeExact(board);
+    }
+
+    // same work as neighbors, moving a single board in place
+    @Benchmark
+    public int applyMoves() throws Throwable {
+        return (int) Targets.APPLY_MOVES.invokeExact(mutable);
+    }
+
+    @Benchmark
+    public int linearConflict() throws Throwable {
+        return (int) Targets.LINEAR_CONFLICT.invokeExact(board);
+    }
+
+    @Benchmark
+    public boolean equalBoards() throws Throwable {
+        return (boolean) Targets.EQUAL_BOARDS.invokeExact(board, copy);
+    }
+
+    @Benchmark
+    public int boardHashCode() throws Throwable {
+        return (int) Targets.BOARD_HASH_CODE.invokeExact(board);
+    }
+
+    @Benchmark
+    public Object boardKey() throws Throwable {
+        return (Object) Targets.BOARD_KEY.invokeExact(board);
+    }
+
+}
@@ -0,0 +1,52 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Frontier queues filled with search-like priorities and drained,
+ * reported per added and polled item
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+
+    private static final int ITEMS = 100000;
+
+    @Param({"BINARY_HEAP", "BUCKET"})
+    private String frontier;
+
+    // A* priorities stay in a narrow band above the initial estimate
+    @Param({"80"})
+    private int maxPriority;
+
+    private Object[] items;
+
+    @Setup
+    public void setUp() throws Throwable {
+        items = (Object[]) Targets.QUEUE_ITEMS.invokeExact(
+            ITEMS, maxPriority, 42L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public int fillAndDrain() throws Throwable {
+        return (int) Targets.FILL_AND_DRAIN.invokeExact(frontier, items);
+    }
+
+}
@@ -0,0 +1,79 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole solves over fixed suites of boards, one board per invocation,
+ * sampled for per-solve latency percentiles.
+ *
+ * The suite is either a seeded set of random boards ("3x3", "4x4") or
+ * a file of boards in the standard input format, e.g. Korf's 100
+ * 15-puzzle instances: -p suite=data/korf100.txt
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SolverBenchmark {
+
+    private static final int SUITE_SIZE = 100;
+    private static final long SEED = 42L;
+
+    @Param({"3x3", "4x4"})
+    private String suite;
+
+    @Param({"A_STAR", "IDA_STAR"})
+    private String algorithm;
+
+    @Param({"BUCKET"})
+    private String frontier;
+
+    @Param({"linear-conflict"})
+    private String heuristic;
+
+    // more than one shares each A* search (HDA*), e.g. -p threads=1,4,32
+    @Param({"1"})
+    private int threads;
+
+    private Object[] boards;
+    private Object options;
+    private int next;
+
+    @Setup
+    public void setUp() throws Throwable {
+        if (suite.equals("3x3")) {
+            boards = (Object[]) Targets.RANDOM_BOARDS.invokeExact(
+                3, SUITE_SIZE, 1000, SEED);
+        } else if (suite.equals("4x4")) {
+            // deep enough to need real search, shallow enough for A*
+            boards = (Object[]) Targets.RANDOM_BOARDS.invokeExact(
+                4, SUITE_SIZE, 40, SEED);
+        } else {
+            boards = (Object[]) Targets.LOAD_BOARDS.invokeExact(suite);
+        }
+        options = (Object) Targets.SOLVER_OPTIONS.invokeExact(
+            algorithm, frontier, heuristic, threads);
+        next = 0;
+    }
+
+    @Benchmark
+    public int solve() throws Throwable {
+        Object board = boards[next];
+        next = (next + 1) % boards.length;
+        return (int) Targets.SOLVE.invokeExact(board, options);
+    }
+
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+
+/**
+ * Method handles to BenchmarkTargets.
+ *
+ * JMH refuses benchmarks in the default package, and classes in a named
+ * package cannot refer to the default package, so the benchmarks call
+ * the puzzle code through constant handles the JIT can inline.
+ */
+final class Targets {
+
+    static final MethodHandle RANDOM_BOARDS = find("randomBoards",
+        int.class, int.class, int.class, long.class);
+    static final MethodHandle LOAD_BOARDS = find("loadBoards", String.class);
+    static final MethodHandle GOAL_BLOCKS = find("goalBlocks", int.class);
+    static final MethodHandle NEW_BOARD = find("newBoard", int[][].class);
+    static final MethodHandle NEIGHBORS = find("neighbors", Object.class);
+    static final MethodHandle MUTABLE_BOARD =
+        find("mutableBoard", Object.class);
+    static final MethodHandle APPLY_MOVES = find("applyMoves", Object.class);
+    static final MethodHandle LINEAR_CONFLICT =
+        find("linearConflict", Object.class);
+    static final MethodHandle EQUAL_BOARDS =
+        find("equalBoards", Object.class, Object.class);
+    static final MethodHandle BOARD_HASH_CODE =
+        find("boardHashCode", Object.class);
+    static final MethodHandle BOARD_KEY = find("boardKey", Object.class);
+    static final MethodHandle QUEUE_ITEMS =
+        find("queueItems", int.class, int.class, long.class);
+    static final MethodHandle FILL_AND_DRAIN =
+        find("fillAndDrain", String.class, Object[].class);
+    static final MethodHandle SOLVER_OPTIONS = find("solverOptions",
+        String.class, String.class, String.class, int.class);
+    static final MethodHandle SOLVE =
+        find("solve", Object.class, Object.class);
+
+    private Targets() {
+    }
+
+    private static MethodHandle find(String name, Class<?>... parameters) {
+        try {
+            Method method = Class.forName("BenchmarkTargets")
+                .getDeclaredMethod(name, parameters);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+}
@@ -0,0 +1,137 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A* search keeping every open and closed board in memory
+ */
+class AStarSearch implements SearchEngine {
+
+    private final SearchQueue<SearchNode> searchQueue;
+    private final Heuristic heuristic;
+    private final double weight;
+    // lowest number of moves known for each open or closed board
+    private final Map<String, Integer> bestMoves = new HashMap<>();
+
+    private SearchStats stats;
+
+    AStarSearch(SolverOptions.Frontier frontier, Heuristic heuristic,
+                double weight) {
+        this.searchQueue = newSearchQueue(frontier);
+        this.heuristic = heuristic;
+        this.weight = weight;
+    }
+
+    static <T extends Comparable<? super T> & BucketPQ.Item>
+        SearchQueue<T> newSearchQueue(SolverOptions.Frontier frontier) {
+
+        if (frontier == SolverOptions.Frontier.BUCKET) {
+            return new BucketPQ<>();
+        } else {
+            return new MinPQ<>();
+        }
+    }
+
+    private class SearchNode
+        implements Comparable<SearchNode>, BucketPQ.Item {
+
+        private final Board board;
+        private final SearchNode prev;
+        private final int moves;
+        private final int estimate;
+        private final String key;
+
+        private SearchNode(Board board, SearchNode prev, int moves) {
+            this.board = board;
+            this.prev = prev;
+            this.moves = moves;
+            this.key = board.key();
+            if (prev == null) {
+                this.estimate = heuristic.estimate(board);
+            } else {
+                // the blank moved here from the previous board
+                this.estimate = heuristic.update(
+                    board, prev.estimate, board.blank(), prev.board.blank());
+            }
+        }
+
+        @Override
+        public int priority() {
+            // rounding the weighted estimate down keeps the solution
+            // within weight times the optimal length
+            return (int) (weight * estimate) + moves;
+        }
+
+        @Override
+        public int compareTo(SearchNode otherNode) {
+            if (this == otherNode) {
+                return 0;
+            }
+
+            if (otherNode == null) {
+                return 1;
+            }
+
+            int thisPriority = priority();
+            int otherPriority = otherNode.priority();
+
+            if (thisPriority != otherPriority) {
+                return thisPriority - otherPriority;
+            } else {
+                return board.hamming() - otherNode.board.hamming();
+            }
+        }
+    }
+
+    @Override
+    public byte[] solve(Board initial, SearchStats stats) {
+        this.stats = stats;
+        stats.updateSuboptimality(weight);
+
+        open(new SearchNode(initial, null, 0));
+
+        while (!stats.stopped()) {
+            SearchNode min = searchQueue.poll();
+            stats.updateFrontier(searchQueue.size());
+            if (min.moves > bestMoves.get(min.key)) {
+                // superseded by a shorter path to the same board
+                stats.countDuplicate();
+                continue;
+            }
+            if (min.board.isGoal()) {
+                return path(min);
+            }
+            stats.updateBound(min.priority());
+            stats.countExpanded();
+            for (Board board: min.board.neighbors()) {
+                stats.countGenerated();
+                open(new SearchNode(board, min, min.moves+1));
+            }
+        }
+
+        return null;
+    }
+
+    // enqueue the node unless its board is already open or closed with
+    // the same or fewer moves; a shorter path reopens a closed board
+    private void open(SearchNode node) {
+        Integer known = bestMoves.get(node.key);
+        if (known == null || node.moves < known) {
+            bestMoves.put(node.key, node.moves);
+            searchQueue.add(node);
+            stats.updateFrontier(searchQueue.size());
+        } else {
+            stats.countDuplicate();
+        }
+    }
+
+    private static byte[] path(SearchNode goal) {
+        byte[] moves = new byte[goal.moves];
+        for (SearchNode ptr = goal; ptr.prev != null; ptr = ptr.prev) {
+            moves[ptr.moves - 1] = (byte) Move.between(ptr.prev.board.blank(),
+                ptr.board.blank(), ptr.board.dimension()).ordinal();
+        }
+
+        return moves;
+    }
+
+}
@@ -0,0 +1,266 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Anytime repairing A* (ARA*): weighted A* searches run with a lower
+ * weight each time, reusing the boards reached by earlier runs and
+ * publishing every shorter solution found
+ */
+class AnytimeSearch implements SearchEngine {
+
+    // weight removed after each solution
+    private static final double WEIGHT_STEP = 0.5;
+    // expansions between two reads of the clock
+    private static final int DEADLINE_CHECK = 1024;
+
+    private final SolverOptions.Frontier frontier;
+    private final Heuristic heuristic;
+    private final double initialWeight;
+    private final long timeLimit;
+
+    private final Map<String, State> states = new HashMap<>();
+    // states reached with fewer moves after being closed in this run
+    private final List<State> inconsistent = new ArrayList<>();
+    private SearchQueue<Entry> open;
+    private SearchStats stats;
+    private double weight;
+    private int run;
+    private long deadline;
+    private State goal;
+
+    AnytimeSearch(SolverOptions.Frontier frontier, Heuristic heuristic,
+                  double weight, long timeLimit) {
+        this.frontier = frontier;
+        this.heuristic = heuristic;
+        this.initialWeight = weight;
+        this.timeLimit = timeLimit;
+    }
+
+    private static class State {
+
+        private final Board board;
+        private final String key;
+        private final int estimate;
+        private State parent;
+        private int moves = Integer.MAX_VALUE;
+        private int closedRun = -1;
+        private int queuedRun = -1;
+
+        private State(Board board, int estimate) {
+            this.board = board;
+            this.key = board.key();
+            this.estimate = estimate;
+        }
+    }
+
+    // queued state with the moves and priority it had when queued; it is
+    // stale once the state is closed or reached with fewer moves
+    private static class Entry implements Comparable<Entry>, BucketPQ.Item {
+
+        private final State state;
+        private final int moves;
+        private final int priority;
+
+        private Entry(State state, double weight) {
+            this.state = state;
+            this.moves = state.moves;
+            this.priority = state.moves + (int) (weight * state.estimate);
+        }
+
+        @Override
+        public int priority() {
+            return priority;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (priority != other.priority) {
+                return priority - other.priority;
+            } else {
+                // prefer boards closer to the goal
+                return state.estimate - other.state.estimate;
+            }
+        }
+    }
+
+    @Override
+    public byte[] solve(Board initial, SearchStats stats) {
+        this.stats = stats;
+        this.weight = initialWeight;
+        this.open = AStarSearch.newSearchQueue(frontier);
+
+        State start = new State(initial, heuristic.estimate(initial));
+        start.moves = 0;
+        states.put(start.key, start);
+        if (initial.isGoal()) {
+            return new byte[0];
+        }
+        push(start);
+
+        byte[] best = null;
+        double suboptimality = weight;
+        boolean completed = improve();
+        // the time limit only applies once there is a solution
+        if (timeLimit > 0) {
+            deadline = System.nanoTime() + timeLimit * 1000000L;
+        }
+        while (completed) {
+            if (goal == null) {
+                return null;
+            }
+
+            byte[] moves = path(goal);
+            List<State> queued = nextRun();
+            // no queued state has fewer moves plus estimate than an
+            // optimal solution
+            double lowerBound = Integer.MAX_VALUE;
+            for (State state : queued) {
+                lowerBound = Math.min(lowerBound, state.moves + state.estimate);
+            }
+            suboptimality = Math.max(1,
+                Math.min(weight, moves.length / lowerBound));
+            if (best == null || moves.length < best.length) {
+                best = moves;
+                stats.improved(best, suboptimality);
+            } else {
+                stats.updateSuboptimality(suboptimality);
+            }
+
+            if (suboptimality <= 1) {
+                return best;
+            }
+            weight = Math.max(1,
+                Math.min(weight - WEIGHT_STEP, suboptimality));
+            for (State state : queued) {
+                push(state);
+            }
+            completed = improve();
+        }
+
+        // out of time: a shorter path found since the last complete run
+        // is still within the last proven bound
+        if (goal != null && best != null) {
+            byte[] moves = path(goal);
+            if (moves.length < best.length) {
+                best = moves;
+                stats.improved(best, suboptimality);
+            }
+        }
+
+        return best;
+    }
+
+    // weighted A* until the goal is reached with no more moves than the
+    // lowest queued priority; false when interrupted or out of time
+    private boolean improve() {
+        while (open.size() > 0) {
+            Entry min = open.poll();
+            State state = min.state;
+            stats.updateFrontier(open.size());
+            if (min.moves != state.moves || state.closedRun == run) {
+                stats.countDuplicate();
+                continue;
+            }
+            if (goal != null && goal.moves <= min.priority) {
+                open.add(min);
+                return true;
+            }
+
+            state.closedRun = run;
+            stats.updateBound(min.priority);
+            stats.countExpanded();
+            if (stopped()) {
+                return false;
+            }
+            for (Board board : state.board.neighbors()) {
+                stats.countGenerated();
+                reach(state, board);
+            }
+        }
+
+        return true;
+    }
+
+    private void reach(State parent, Board board) {
+        String key = board.key();
+        State state = states.get(key);
+        if (state == null) {
+            // the blank moved here from the parent board
+            state = new State(board, heuristic.update(board,
+                parent.estimate, board.blank(), parent.board.blank()));
+            states.put(key, state);
+        }
+
+        if (parent.moves + 1 >= state.moves) {
+            stats.countDuplicate();
+            return;
+        }
+
+        state.moves = parent.moves + 1;
+        state.parent = parent;
+        if (state.board.isGoal()) {
+            goal = state;
+        }
+        if (state.closedRun == run) {
+            inconsistent.add(state);
+        } else {
+            push(state);
+        }
+    }
+
+    private boolean stopped() {
+        return stats.stopped() || deadline != 0
+            && stats.expanded() % DEADLINE_CHECK == 0
+            && System.nanoTime() - deadline >= 0;
+    }
+
+    private void push(State state) {
+        open.add(new Entry(state, weight));
+        stats.updateFrontier(open.size());
+    }
+
+    // start the next run, taking the open and inconsistent states out
+    // of the queue to requeue them with the next weight
+    private List<State> nextRun() {
+        List<State> queued = new ArrayList<>();
+        run++;
+        for (State state : inconsistent) {
+            if (state.queuedRun != run) {
+                state.queuedRun = run;
+                queued.add(state);
+            }
+        }
+        inconsistent.clear();
+        while (open.size() > 0) {
+            Entry entry = open.poll();
+            State state = entry.state;
+            if (entry.moves == state.moves && state.closedRun != run - 1
+                && state.queuedRun != run) {
+                state.queuedRun = run;
+                queued.add(state);
+            }
+        }
+
+        return queued;
+    }
+
+    private static byte[] path(State goal) {
+        List<State> states = new ArrayList<>();
+        for (State ptr = goal; ptr != null; ptr = ptr.parent) {
+            states.add(ptr);
+        }
+
+        byte[] moves = new byte[states.size() - 1];
+        for (int i = 0; i < moves.length; i++) {
+            Board from = states.get(moves.length - i).board;
+            Board to = states.get(moves.length - i - 1).board;
+            moves[i] = (byte) Move.between(
+                from.blank(), to.blank(), to.dimension()).ordinal();
+        }
+
+        return moves;
+    }
+
+}
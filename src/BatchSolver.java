@@ -0,0 +1,111 @@
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solves a stream of puzzles on a pool of worker threads, printing
+ * one line per puzzle as soon as it is solved (or in input order)
+ */
+public class BatchSolver {
+
+    private final ExecutorService pool;
+    // puzzles submitted but not printed yet
+    private final Semaphore inFlight;
+    private final boolean ordered;
+    private final PrintStream out;
+
+    // results waiting for earlier puzzles when printing in order
+    private final Map<Integer, String> pending = new HashMap<>();
+    private int nextIndex = 0;
+    private int submitted = 0;
+
+    public BatchSolver(int threads, int maxInFlight, boolean ordered,
+                       PrintStream out) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads should be positive");
+        }
+
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException(
+                "max in flight puzzles should be positive");
+        }
+
+        if (out == null) {
+            throw new NullPointerException("output is null");
+        }
+
+        this.pool = Executors.newFixedThreadPool(threads);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.ordered = ordered;
+        this.out = out;
+    }
+
+    // blocks while the maximum number of puzzles is in flight
+    public void submit(final Board board, final SolverOptions options)
+        throws InterruptedException {
+
+        inFlight.acquire();
+        final int index = submitted++;
+        pool.execute(new Runnable() {
+            @Override
+            public void run() {
+                String line;
+                try {
+                    line = solve(index, board, options);
+                } catch (RuntimeException | Error e) {
+                    line = String.format("#%d error=%s", index + 1, e);
+                }
+                publish(index, line);
+            }
+        });
+    }
+
+    // waits until every submitted puzzle has been printed
+    public void finish() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        out.flush();
+    }
+
+    private static String solve(int index, Board board, SolverOptions options) {
+        long start = System.nanoTime();
+        Solver solver = new Solver(board, options);
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        SearchStats stats = solver.stats();
+        return String.format("#%d moves=%d time=%.3fms status=%s "
+            + "expanded=%d generated=%d path=%s", index + 1, solver.moves(),
+            millis, solver.status(), stats.expanded(), stats.generated(),
+            path(solver));
+    }
+
+    // move sequence, - for unsolvable boards, or ? for searches given up
+    static String path(Solver solver) {
+        if (solver.isSolvable()) {
+            return solver.moveSequence();
+        } else if (solver.status() == Solver.Status.UNSOLVABLE) {
+            return "-";
+        } else {
+            return "?";
+        }
+    }
+
+    private synchronized void publish(int index, String line) {
+        if (!ordered) {
+            out.println(line);
+            inFlight.release();
+            return;
+        }
+
+        pending.put(index, line);
+        while (pending.containsKey(nextIndex)) {
+            out.println(pending.remove(nextIndex++));
+            inFlight.release();
+        }
+    }
+
+}
@@ -0,0 +1,308 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bidirectional search meeting in the middle (MM): a search forward from
+ * the initial board and one backward from the goal, each expanding its
+ * boards by max(moves + estimate, 2 moves) so that neither goes past the
+ * middle of the shortest solution. It ends once no open board could lead
+ * to a shorter meeting than the best one found.
+ */
+class BidirectionalSearch implements SearchEngine {
+
+    private final SolverOptions.Frontier frontier;
+    private final Heuristic heuristic;
+
+    private SearchStats stats;
+    private Direction forward;
+    private Direction backward;
+    // shortest solution through a board reached both ways, and that board
+    private int bestMoves = Integer.MAX_VALUE;
+    private String meeting;
+
+    BidirectionalSearch(SolverOptions.Frontier frontier,
+                        Heuristic heuristic) {
+        this.frontier = frontier;
+        this.heuristic = heuristic;
+    }
+
+    private static class Node {
+
+        private final Board board;
+        private final String key;
+        private final int estimate;
+        // towards the board the search started from
+        private Node parent;
+        private int moves = Integer.MAX_VALUE;
+        private boolean open;
+
+        private Node(Board board, String key, int estimate) {
+            this.board = board;
+            this.key = key;
+            this.estimate = estimate;
+        }
+    }
+
+    // queued node with the moves it had when queued; it is stale once the
+    // node is expanded or reached with fewer moves
+    private static class Entry implements Comparable<Entry>, BucketPQ.Item {
+
+        private final Node node;
+        private final int moves;
+        private final int priority;
+
+        private Entry(Node node) {
+            this.node = node;
+            this.moves = node.moves;
+            this.priority = Math.max(node.moves + node.estimate,
+                2 * node.moves);
+        }
+
+        @Override
+        public int priority() {
+            return priority;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (priority != other.priority) {
+                return priority - other.priority;
+            } else {
+                return moves - other.moves;
+            }
+        }
+
+        private boolean isStale() {
+            return !node.open || moves != node.moves;
+        }
+    }
+
+    // one of the two searches, with the boards it reached
+    private class Direction {
+
+        private final Heuristic heuristic;
+        private final Map<String, Node> nodes = new HashMap<>();
+        private final SearchQueue<Entry> open =
+            AStarSearch.newSearchQueue(frontier);
+        // lowest priority entry, taken out of the queue
+        private Entry head;
+        // number of open nodes with each number of moves
+        private int[] openMoves = new int[64];
+        private int minMoves;
+        private Direction other;
+
+        private Direction(Heuristic heuristic, Board start) {
+            this.heuristic = heuristic;
+            Node node = new Node(start, start.key(),
+                heuristic.estimate(start));
+            nodes.put(node.key, node);
+            reached(node, null, 0);
+        }
+
+        // lowest priority of the open nodes, MAX_VALUE when there are none
+        private int minPriority() {
+            while (head == null || head.isStale()) {
+                if (open.size() == 0) {
+                    head = null;
+                    return Integer.MAX_VALUE;
+                }
+                if (head != null) {
+                    stats.countDuplicate();
+                }
+                head = open.poll();
+            }
+
+            return head.priority;
+        }
+
+        // fewest moves of the open nodes
+        private int minMoves() {
+            while (openMoves[minMoves] == 0) {
+                minMoves++;
+            }
+
+            return minMoves;
+        }
+
+        private int size() {
+            return open.size() + (head == null ? 0 : 1);
+        }
+
+        private void expandHead() {
+            Node node = head.node;
+            head = null;
+            node.open = false;
+            openMoves[node.moves]--;
+
+            stats.updateBound(Math.max(node.moves + node.estimate,
+                2 * node.moves));
+            stats.countExpanded();
+            for (Board board : node.board.neighbors()) {
+                stats.countGenerated();
+                reach(board, node);
+            }
+        }
+
+        private void reach(Board board, Node parent) {
+            String key = board.key();
+            Node node = nodes.get(key);
+            if (node == null) {
+                // the blank moved here from the parent board
+                node = new Node(board, key, heuristic.update(board,
+                    parent.estimate, board.blank(), parent.board.blank()));
+                nodes.put(key, node);
+            }
+
+            if (parent.moves + 1 >= node.moves) {
+                stats.countDuplicate();
+                return;
+            }
+            reached(node, parent, parent.moves + 1);
+        }
+
+        private void reached(Node node, Node parent, int moves) {
+            if (node.open) {
+                openMoves[node.moves]--;
+            }
+            node.open = true;
+            node.moves = moves;
+            node.parent = parent;
+            if (moves >= openMoves.length) {
+                openMoves = Arrays.copyOf(openMoves, 2 * moves);
+            }
+            openMoves[moves]++;
+            minMoves = Math.min(minMoves, moves);
+            open.add(new Entry(node));
+
+            Node met = other == null ? null : other.nodes.get(node.key);
+            if (met != null && met.moves != Integer.MAX_VALUE
+                && moves + met.moves < bestMoves) {
+                bestMoves = moves + met.moves;
+                meeting = node.key;
+            }
+        }
+    }
+
+    @Override
+    public byte[] solve(Board initial, SearchStats stats) {
+        this.stats = stats;
+        if (initial.isGoal()) {
+            return new byte[0];
+        }
+
+        forward = new Direction(heuristic, initial);
+        backward = new Direction(new TargetManhattan(initial),
+            goal(initial.dimension()));
+        forward.other = backward;
+        backward.other = forward;
+
+        while (!stats.stopped()) {
+            int forwardPriority = forward.minPriority();
+            int backwardPriority = backward.minPriority();
+            if (forwardPriority == Integer.MAX_VALUE
+                || backwardPriority == Integer.MAX_VALUE) {
+                // one side reached every board it could
+                return meeting == null ? null : path();
+            }
+
+            // no open board leads to a meeting shorter than either the
+            // lowest priority or the fewest moves on both sides plus one
+            int lowerBound = Math.max(
+                Math.min(forwardPriority, backwardPriority),
+                forward.minMoves() + backward.minMoves() + 1);
+            if (bestMoves <= lowerBound) {
+                return path();
+            }
+
+            if (forwardPriority <= backwardPriority) {
+                forward.expandHead();
+            } else {
+                backward.expandHead();
+            }
+            stats.updateFrontier(forward.size() + backward.size());
+        }
+
+        return null;
+    }
+
+    private static Board goal(int dimension) {
+        int[][] blocks = new int[dimension][dimension];
+        for (int i = 0; i < dimension * dimension - 1; i++) {
+            blocks[i / dimension][i % dimension] = i + 1;
+        }
+
+        return new Board(blocks);
+    }
+
+    // forward path to the meeting board, then the backward path from it
+    private byte[] path() {
+        List<Board> boards = new ArrayList<>();
+        for (Node node = forward.nodes.get(meeting); node != null;
+             node = node.parent) {
+            boards.add(0, node.board);
+        }
+        for (Node node = backward.nodes.get(meeting).parent; node != null;
+             node = node.parent) {
+            boards.add(node.board);
+        }
+
+        byte[] moves = new byte[boards.size() - 1];
+        for (int i = 0; i < moves.length; i++) {
+            Board from = boards.get(i);
+            Board to = boards.get(i + 1);
+            moves[i] = (byte) Move.between(
+                from.blank(), to.blank(), to.dimension()).ordinal();
+        }
+
+        return moves;
+    }
+
+    /**
+     * Sum of the Manhattan distances of the blocks to their positions on
+     * a target board, guiding the backward search to the initial board
+     */
+    private static class TargetManhattan implements Heuristic {
+
+        private final int dimension;
+        // position of each block on the target board
+        private final int[] target;
+
+        private TargetManhattan(Board board) {
+            dimension = board.dimension();
+            target = new int[dimension * dimension];
+            for (int i = 0; i < target.length; i++) {
+                target[board.block(i)] = i;
+            }
+        }
+
+        @Override
+        public int estimate(Blocks blocks) {
+            int estimate = 0;
+            for (int i = 0; i < target.length; i++) {
+                int block = blocks.block(i);
+                if (block != 0) {
+                    estimate += distance(block, i);
+                }
+            }
+
+            return estimate;
+        }
+
+        @Override
+        public int update(Blocks blocks, int estimate, int from, int to) {
+            int block = blocks.block(to);
+
+            return estimate - distance(block, from) + distance(block, to);
+        }
+
+        private int distance(int block, int idx) {
+            int position = target[block];
+            return Math.abs(position / dimension - idx / dimension)
+                + Math.abs(position % dimension - idx % dimension);
+        }
+    }
+
+}
@@ -0,0 +1,11 @@
+/**
+ * Read access to the blocks of a board laid out row by row,
+ * with 0 standing for the blank
+ */
+public interface Blocks {
+
+    int dimension();
+
+    int block(int idx);
+
+}
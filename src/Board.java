@@ -5,15 +5,41 @@ import java.util.List;
 /**
  * Board data type
  */
-public class Board {
+public class Board implements Blocks {
+
+    // boards up to 4x4 keep 4 bits per block in a single long,
+    // block at index i in bits 4i to 4i+3, and leave the array null
+    static final int PACKED_MAX_DIMENSION = 4;
 
     private final char[] board;
+    private final long packed;
     private final int dimension;
+    private final int blank;
 
     private int manhattanCache = -1;
     private int hammingCache = -1;
 
     public Board(int[][] blocks) {
+        this(checkDimension(blocks), fillBlocks(blocks));
+    }
+
+    // takes over the blocks, row after row, of a board already checked
+    Board(int dimension, char[] blocks) {
+        this.dimension = dimension;
+        if (canPack(blocks)) {
+            board = null;
+            packed = pack(blocks);
+        } else {
+            board = blocks;
+            packed = 0;
+        }
+        blank = findBlank();
+
+        manhattanCache = manhattan();
+        hammingCache = hamming();
+    }
+
+    private static int checkDimension(int[][] blocks) {
         if (blocks == null) {
             throw new NullPointerException("blocks are null");
         }
@@ -30,26 +56,61 @@ public class Board {
             }
         }
 
-        dimension = blocks.length;
-        board = fillBlocks(blocks);
+        return blocks.length;
+    }
 
-        manhattanCache = manhattan();
-        hammingCache = hamming();
+    private Board(Board parent, int swapSrc, int swapDst) {
+        dimension = parent.dimension;
+        blank = parent.blank;
+
+        int src = parent.block(swapSrc);
+        int dst = parent.block(swapDst);
+        if (parent.board == null) {
+            board = null;
+            packed = parent.packed
+                - ((long) src << 4 * swapSrc) + ((long) dst << 4 * swapSrc)
+                - ((long) dst << 4 * swapDst) + ((long) src << 4 * swapDst);
+        } else {
+            board = parent.board.clone();
+            packed = 0;
+            board[swapSrc] = (char) dst;
+            board[swapDst] = (char) src;
+        }
     }
 
-    private Board(char[] blocks, int swapSrc, int swapDst) {
-        dimension = (int) Math.sqrt(blocks.length + 1);
-        board = blocks.clone();
+    // neighbor reached by sliding the block at moved into the parent's blank
+    private Board(Board parent, int moved) {
+        dimension = parent.dimension;
+        blank = moved;
+
+        int block = parent.block(moved);
+        if (parent.board == null) {
+            // the blank holds zero bits, so the block is shifted into it
+            board = null;
+            packed = parent.packed - ((long) block << 4 * moved)
+                + ((long) block << 4 * parent.blank);
+        } else {
+            board = parent.board.clone();
+            packed = 0;
+            board[parent.blank] = (char) block;
+            board[moved] = 0;
+        }
 
-        board[swapSrc] = blocks[swapDst];
-        board[swapDst] = blocks[swapSrc];
+        // only the moved block changes its contribution to the priorities
+        manhattanCache = parent.manhattan()
+            - calculateDistance(block, moved)
+            + calculateDistance(block, parent.blank);
+        hammingCache = parent.hamming()
+            - (block == moved + 1 ? 0 : 1)
+            + (block == parent.blank + 1 ? 0 : 1);
     }
 
-    private char[] fillBlocks(int[][] blocks2D) {
-        char[] blocksSeq = new char[dimension() * dimension()];
-        for (int i = 0; i < dimension(); i++) {
-            for (int j = 0; j < dimension(); j++) {
-                int idx = i * dimension() + j;
+    private static char[] fillBlocks(int[][] blocks2D) {
+        int dimension = blocks2D.length;
+        char[] blocksSeq = new char[dimension * dimension];
+        for (int i = 0; i < dimension; i++) {
+            for (int j = 0; j < dimension; j++) {
+                int idx = i * dimension + j;
                 blocksSeq[idx] = (char) blocks2D[i][j];
             }
         }
@@ -57,14 +118,55 @@ public class Board {
         return blocksSeq;
     }
 
+    private static boolean canPack(char[] blocksSeq) {
+        if (blocksSeq.length > PACKED_MAX_DIMENSION * PACKED_MAX_DIMENSION) {
+            return false;
+        }
+
+        for (char block : blocksSeq) {
+            if (block > 0xF) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static long pack(char[] blocksSeq) {
+        long bits = 0;
+        for (int i = 0; i < blocksSeq.length; i++) {
+            bits |= (long) blocksSeq[i] << 4 * i;
+        }
+
+        return bits;
+    }
+
+    @Override
+    public int block(int idx) {
+        if (board == null) {
+            return (int) (packed >>> 4 * idx) & 0xF;
+        } else {
+            return board[idx];
+        }
+    }
+
+    private int size() {
+        return dimension * dimension;
+    }
+
+    @Override
     public int dimension() {
         return dimension;
     }
 
+    int blank() {
+        return blank;
+    }
+
     public int hamming() {
         if (hammingCache < 0) {
             hammingCache = 0;
-            for (int i = 0; i < board.length; i++) {
+            for (int i = 0; i < size(); i++) {
                 if (!pieceInPlace(i)) {
                     hammingCache++;
                 }
@@ -77,9 +179,9 @@ public class Board {
     public int manhattan() {
         if (manhattanCache < 0) {
             manhattanCache = 0;
-            for (int i = 0; i < board.length; i++) {
+            for (int i = 0; i < size(); i++) {
                 if (!pieceInPlace(i)) {
-                    manhattanCache += calculateDistance(i);
+                    manhattanCache += calculateDistance(block(i), i);
                 }
             }
         }
@@ -87,11 +189,11 @@ public class Board {
         return manhattanCache;
     }
 
-    private int calculateDistance(int idx) {
+    private int calculateDistance(int block, int idx) {
         int currentRow = idx / dimension();
         int currentCol = idx - currentRow * dimension();
-        int finalRow = (board[idx] - 1) / dimension();
-        int finalCol = (board[idx] - 1) - finalRow * dimension();
+        int finalRow = (block - 1) / dimension();
+        int finalCol = (block - 1) - finalRow * dimension();
 
         return Math.abs(finalRow - currentRow) + Math.abs(finalCol - currentCol);
     }
@@ -101,14 +203,46 @@ public class Board {
     }
 
     private boolean pieceInPlace(int idx) {
-        return board[idx] == 0 || board[idx] == idx + 1;
+        int block = block(idx);
+        return block == 0 || block == idx + 1;
+    }
+
+    public boolean isSolvable() {
+        // every move swaps the blank with a neighbor, so it flips both the
+        // parity of the permutation and the parity of the blank distance
+        // to its goal position; in the goal position both are even
+        boolean[] visited = new boolean[size()];
+        int cycles = 0;
+        for (int i = 0; i < size(); i++) {
+            if (!visited[i]) {
+                cycles++;
+                for (int j = i; !visited[j]; j = goalIndex(j)) {
+                    visited[j] = true;
+                }
+            }
+        }
+
+        int blankRow = blank / dimension();
+        int blankCol = blank - blankRow * dimension();
+        int blankDistance = 2 * (dimension() - 1) - blankRow - blankCol;
+
+        return (size() - cycles) % 2 == blankDistance % 2;
+    }
+
+    private int goalIndex(int idx) {
+        int block = block(idx);
+        if (block == 0) {
+            return size() - 1;
+        } else {
+            return block - 1;
+        }
     }
 
     public Board twin() {
-        if (board[0] != 0 && board[1] != 0) {
-            return new Board(this.board, 0, 1);
+        if (block(0) != 0 && block(1) != 0) {
+            return new Board(this, 0, 1);
         } else {
-            return new Board(this.board, dimension(), dimension() + 1);
+            return new Board(this, dimension(), dimension() + 1);
         }
     }
 
@@ -122,60 +256,108 @@ public class Board {
             return false;
         }
 
-        return Arrays.equals(board, ((Board) o).board);
+        Board that = (Board) o;
+        if (board == null) {
+            return that.board == null && packed == that.packed
+                && dimension == that.dimension;
+        }
+
+        return Arrays.equals(board, that.board);
     }
 
     @Override
     public int hashCode() {
+        if (board == null) {
+            return (int) PackedBoards.hash(packed);
+        }
+
         return Arrays.hashCode(board);
     }
 
+    // blocks of a board up to 4x4, 4 bits each from index 0 up
+    long packed() {
+        if (board != null) {
+            throw new IllegalStateException("board is too large to pack");
+        }
+
+        return packed;
+    }
+
+    // compact encoding of the blocks used for duplicate detection,
+    // four blocks per char when packed, one otherwise
+    String key() {
+        if (board != null) {
+            return new String(board);
+        }
+
+        char[] chars = new char[(size() + 3) / 4];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (packed >>> 16 * i);
+        }
+
+        return new String(chars);
+    }
+
     public Iterable<Board> neighbors() {
         List<Board> neighbors = new ArrayList<>();
 
-        int blank = findBlank();
-
-        addTopNeighbor(neighbors, blank);
-        addBottomNeighbor(neighbors, blank);
-        addLeftNeighbor(neighbors, blank);
-        addRightNeighbor(neighbors, blank);
+        addTopNeighbor(neighbors);
+        addBottomNeighbor(neighbors);
+        addLeftNeighbor(neighbors);
+        addRightNeighbor(neighbors);
 
         return neighbors;
     }
 
     private int findBlank() {
-        int blank = 0;
-        for (int i = 0; i < board.length; i++) {
-            if (board[i] == 0) {
-                blank = i;
+        int idx = 0;
+        for (int i = 0; i < size(); i++) {
+            if (block(i) == 0) {
+                idx = i;
                 break;
             }
         }
 
-        return blank;
+        return idx;
+    }
+
+    // neighbor reached by sliding the block at idx into the blank
+    Board slide(int idx) {
+        return new Board(this, idx);
+    }
+
+    // neighbor reached by moving the blank
+    Board move(Move move) {
+        int target = move.target(blank, dimension());
+        if (target < 0) {
+            throw new IllegalArgumentException(
+                "move " + move + " takes the blank off the board");
+        }
+
+        return new Board(this, target);
     }
 
-    private void addTopNeighbor(List<Board> neighbors, int blank) {
+    private void addTopNeighbor(List<Board> neighbors) {
         if (blank >= dimension()) {
-            neighbors.add(new Board(this.board, blank - dimension(), blank));
+            neighbors.add(new Board(this, blank - dimension()));
         }
     }
 
-    private void addBottomNeighbor(List<Board> neighbors, int blank) {
+    private void addBottomNeighbor(List<Board> neighbors) {
         if (blank / dimension() != dimension() - 1) {
-            neighbors.add(new Board(this.board, blank + dimension(), blank));
+            neighbors.add(new Board(this, blank + dimension()));
         }
     }
 
-    private void addLeftNeighbor(List<Board> neighbors, int blank) {
+    private void addLeftNeighbor(List<Board> neighbors) {
         if (blank % dimension() != 0) {
-            neighbors.add(new Board(this.board, blank - 1, blank));
+            neighbors.add(new Board(this, blank - 1));
         }
     }
 
-    private void addRightNeighbor(List<Board> neighbors, int blank) {
+    private void addRightNeighbor(List<Board> neighbors) {
         if (blank % dimension() != dimension() - 1) {
-            neighbors.add(new Board(this.board, blank + 1, blank));
+            neighbors.add(new Board(this, blank + 1));
         }
     }
 
@@ -183,8 +365,8 @@ public class Board {
         StringBuilder sb = new StringBuilder();
         sb.append(dimension());
         sb.append("\n");
-        for (int i = 0; i < board.length; i++) {
-            sb.append(String.format("%2d ", (int) board[i]));
+        for (int i = 0; i < size(); i++) {
+            sb.append(String.format("%2d ", block(i)));
             if ((i + 1) % dimension() == 0) {
                 sb.append("\n");
             }
@@ -0,0 +1,90 @@
+/**
+ * Min priority queue for small non-negative integer priorities,
+ * with one LIFO bucket per priority
+ */
+public class BucketPQ<T extends BucketPQ.Item> implements SearchQueue<T> {
+
+    public interface Item {
+        int priority();
+    }
+
+    private Object[][] buckets;
+    private int[] bucketSizes;
+    private int min;
+    private int size;
+
+    public BucketPQ() {
+        buckets = new Object[0][];
+        bucketSizes = new int[0];
+        min = 0;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(T item) {
+        if (item == null) {
+            throw new NullPointerException("item is null");
+        }
+
+        int priority = item.priority();
+        if (priority < 0) {
+            throw new IllegalArgumentException("priority is negative");
+        }
+        // resize the bucket index if needed
+        if (priority >= buckets.length) {
+            resize(Math.max(2 * buckets.length, priority + 1));
+        }
+
+        Object[] bucket = buckets[priority];
+        int bucketSize = bucketSizes[priority];
+        if (bucket == null || bucket.length == bucketSize) {
+            Object[] tmp = new Object[Math.max(2 * bucketSize, 2)];
+            if (bucket != null) {
+                System.arraycopy(bucket, 0, tmp, 0, bucketSize);
+            }
+            bucket = tmp;
+            buckets[priority] = bucket;
+        }
+
+        bucket[bucketSize] = item;
+        bucketSizes[priority]++;
+        if (size == 0 || priority < min) {
+            min = priority;
+        }
+        size++;
+    }
+
+    private void resize(int newCapacity) {
+        Object[][] tmpBuckets = new Object[newCapacity][];
+        System.arraycopy(buckets, 0, tmpBuckets, 0, buckets.length);
+        buckets = tmpBuckets;
+
+        int[] tmpSizes = new int[newCapacity];
+        System.arraycopy(bucketSizes, 0, tmpSizes, 0, bucketSizes.length);
+        bucketSizes = tmpSizes;
+    }
+
+    // the buckets contain only T instances passed through add()
+    @SuppressWarnings("unchecked")
+    @Override
+    public T poll() {
+        T item = null;
+        if (size > 0) {
+            // skip the buckets emptied by previous polls
+            while (bucketSizes[min] == 0) {
+                min++;
+            }
+            int last = --bucketSizes[min];
+            item = (T) buckets[min][last];
+            buckets[min][last] = null;
+            size--;
+        }
+
+        return item;
+    }
+}
@@ -0,0 +1,40 @@
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asks running searches to stop, either when cancelled or once its
+ * deadline has passed
+ */
+public class CancellationToken {
+
+    private final long deadline;
+    private final boolean timed;
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this.deadline = 0;
+        this.timed = false;
+    }
+
+    // token expiring after the timeout, counted from now
+    public CancellationToken(long timeout, TimeUnit unit) {
+        if (unit == null) {
+            throw new NullPointerException("unit is null");
+        }
+
+        this.deadline = System.nanoTime() + unit.toNanos(timeout);
+        this.timed = true;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isExpired() {
+        return timed && System.nanoTime() - deadline >= 0;
+    }
+
+}
@@ -0,0 +1,106 @@
+/**
+ * A* search over boards up to 4x4 keeping its nodes in a NodeArena
+ * rather than in objects: the frontier holds node ids with their
+ * priorities, and the arena index doubles as the closed set
+ */
+class CompactAStarSearch implements SearchEngine {
+
+    private static final Move[] MOVES = Move.values();
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private final SolverOptions.Frontier frontier;
+    private final Heuristic heuristic;
+    private final double weight;
+
+    private NodeArena arena;
+
+    CompactAStarSearch(SolverOptions.Frontier frontier, Heuristic heuristic,
+                       double weight) {
+        this.frontier = frontier;
+        this.heuristic = heuristic;
+        this.weight = weight;
+    }
+
+    @Override
+    public byte[] solve(Board initial, SearchStats stats) {
+        stats.updateSuboptimality(weight);
+        int dimension = initial.dimension();
+        long goal = PackedBoards.goal(dimension);
+        PackedBoards.View view = new PackedBoards.View(dimension);
+        PackedBoards.Queue open = PackedBoards.newQueue(frontier, false);
+
+        arena = new NodeArena(INITIAL_CAPACITY);
+        int root = arena.add(initial.packed(), initial.blank(),
+            NodeArena.NO_PARENT, 0, heuristic.estimate(initial));
+        open.add(root, priority(root), initial.hamming());
+        stats.updateFrontier(open.size());
+
+        while (!stats.stopped()) {
+            if (open.size() == 0) {
+                return null;
+            }
+            int priority = open.minPriority();
+            int id = (int) open.poll();
+            stats.updateFrontier(open.size());
+            if (priority != priority(id)) {
+                // superseded by a shorter path to the same board
+                stats.countDuplicate();
+                continue;
+            }
+            long state = arena.state(id);
+            if (state == goal) {
+                return path(id, dimension);
+            }
+            stats.updateBound(priority);
+            stats.countExpanded();
+
+            int blank = arena.blank(id);
+            int moves = arena.moves(id) + 1;
+            for (Move move : MOVES) {
+                int target = move.target(blank, dimension);
+                if (target < 0) {
+                    continue;
+                }
+
+                stats.countGenerated();
+                long child = PackedBoards.slide(state, target, blank);
+                int childId = arena.find(child);
+                if (childId < 0) {
+                    childId = arena.add(child, target, id, moves,
+                        heuristic.update(view.state(child),
+                            arena.estimate(id), target, blank));
+                } else if (moves < arena.moves(childId)) {
+                    // a shorter path reopens a closed board
+                    arena.reach(childId, id, moves);
+                } else {
+                    stats.countDuplicate();
+                    continue;
+                }
+                open.add(childId, priority(childId),
+                    PackedBoards.hamming(child, dimension));
+                stats.updateFrontier(open.size());
+            }
+        }
+
+        return null;
+    }
+
+    private int priority(int id) {
+        // rounding the weighted estimate down keeps the solution
+        // within weight times the optimal length
+        return (int) (weight * arena.estimate(id)) + arena.moves(id);
+    }
+
+    private byte[] path(int goal, int dimension) {
+        byte[] moves = new byte[arena.moves(goal)];
+        for (int id = goal; arena.parent(id) != NodeArena.NO_PARENT;
+             id = arena.parent(id)) {
+            moves[arena.moves(id) - 1] = (byte) Move.between(
+                arena.blank(arena.parent(id)), arena.blank(id), dimension)
+                .ordinal();
+        }
+
+        return moves;
+    }
+
+}
@@ -0,0 +1,379 @@
+import java.util.Arrays;
+
+/**
+ * Polynomial solution of boards of any size, far from the shortest one:
+ * the top row and the left column are placed one block at a time,
+ * alternately, until a 2x2 board is left to rotate into place
+ */
+class ConstructiveSearch implements SearchEngine {
+
+    private final MoveListener listener;
+
+    private int dimension;
+    private int[] blocks;
+    // position of each block
+    private int[] where;
+    // positions whose block is in place for good
+    private boolean[] locked;
+    private int blank;
+
+    private byte[] moves = new byte[64];
+    private int count;
+    private SearchStats stats;
+
+    // breadth-first search of the blank, reused between searches
+    private int[] queue;
+    private int[] parent;
+    private int[] seen;
+    private int visit;
+    private int[] route;
+
+    // rows and columns still to solve: top..dimension-1, left..dimension-1
+    private int top;
+    private int left;
+
+    ConstructiveSearch(MoveListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public byte[] solve(Board initial, SearchStats stats) {
+        this.stats = stats;
+        // no bound on the solution length over the optimal one
+        stats.updateSuboptimality(Double.POSITIVE_INFINITY);
+        dimension = initial.dimension();
+        int size = dimension * dimension;
+        blocks = new int[size];
+        where = new int[size];
+        locked = new boolean[size];
+        queue = new int[size];
+        parent = new int[size];
+        seen = new int[size];
+        route = new int[size];
+        for (int i = 0; i < size; i++) {
+            blocks[i] = initial.block(i);
+            where[blocks[i]] = i;
+        }
+        blank = where[0];
+
+        while (dimension - top > 2 || dimension - left > 2) {
+            if (stats.stopped()) {
+                return null;
+            }
+            if (dimension - top >= dimension - left) {
+                solveTopRow();
+                top++;
+            } else {
+                solveLeftColumn();
+                left++;
+            }
+        }
+        solveLastSquare();
+
+        return Arrays.copyOf(moves, count);
+    }
+
+    private void solveTopRow() {
+        int width = dimension - left;
+        int[] line = new int[width];
+        for (int i = 0; i < width; i++) {
+            line[i] = top * dimension + left + i;
+        }
+        // the last two blocks are placed together in the 3x2 corner below
+        // the end of the row
+        int[] window = new int[6];
+        for (int i = 0; i < 6; i++) {
+            window[i] = (top + 2 - i / 2) * dimension + dimension - 2 + i % 2;
+        }
+
+        solveLine(line, window, true);
+    }
+
+    private void solveLeftColumn() {
+        int height = dimension - top;
+        int[] line = new int[height];
+        for (int i = 0; i < height; i++) {
+            line[i] = (top + i) * dimension + left;
+        }
+        // the last two blocks are placed together in the 2x3 corner right
+        // of the end of the column
+        int[] window = new int[6];
+        for (int i = 0; i < 6; i++) {
+            window[i] = (dimension - 1 - i % 2) * dimension + left + 2 - i / 2;
+        }
+
+        solveLine(line, window, false);
+    }
+
+    // place the goal blocks of the line cells; window cells are ordered
+    // from the farthest from the line
+    private void solveLine(int[] line, int[] window, boolean row) {
+        for (int i = 0; i < line.length - 2; i++) {
+            moveBlock(line[i] + 1, line[i], row, null);
+            locked[line[i]] = true;
+        }
+
+        int end = line[line.length - 1];
+        int beforeEnd = line[line.length - 2];
+        int a = beforeEnd + 1;
+        int b = end + 1;
+        if (where[a] != beforeEnd || where[b] != end) {
+            // bring both blocks into the window, then arrange them there
+            moveBlock(a, end, row, null);
+            if (!contains(window, where[b])) {
+                locked[end] = true;
+                moveBlock(b, window[0], row, window);
+                locked[end] = false;
+            }
+            if (!contains(window, blank)) {
+                locked[where[a]] = true;
+                locked[where[b]] = true;
+                for (int cell : window) {
+                    if (!locked[cell]) {
+                        moveBlank(cell, -1);
+                        break;
+                    }
+                }
+                locked[where[a]] = false;
+                locked[where[b]] = false;
+            }
+            arrange(window, a, beforeEnd, b, end);
+        }
+        locked[beforeEnd] = true;
+        locked[end] = true;
+    }
+
+    // rotate the blank around the last 2x2 square until it is solved
+    private void solveLastSquare() {
+        int corner = dimension * dimension - 1;
+        moveBlank(corner, -1);
+        int[] cycle = {corner - dimension, corner - dimension - 1,
+            corner - 1, corner};
+        for (int turn = 0; !isSolved(); turn++) {
+            if (turn == 3) {
+                throw new IllegalStateException("board is unsolvable");
+            }
+            for (int cell : cycle) {
+                slide(cell);
+            }
+        }
+    }
+
+    private boolean isSolved() {
+        int corner = blocks.length - 1;
+        return blocks[corner - dimension - 1] == corner - dimension
+            && blocks[corner - dimension] == corner - dimension + 1
+            && blocks[corner - 1] == corner;
+    }
+
+    // move the block one cell at a time towards the target, first along
+    // the line being solved, then across; stop early once it is in the
+    // given cells
+    private void moveBlock(int block, int target, boolean row, int[] stop) {
+        while (where[block] != target) {
+            if (stop != null && contains(stop, where[block])) {
+                return;
+            }
+
+            int position = where[block];
+            int rowStep = Integer.signum(
+                target / dimension - position / dimension) * dimension;
+            int columnStep = Integer.signum(
+                target % dimension - position % dimension);
+            int next;
+            if (row) {
+                next = position + (columnStep != 0 ? columnStep : rowStep);
+            } else {
+                next = position + (rowStep != 0 ? rowStep : columnStep);
+            }
+
+            moveBlank(next, position);
+            slide(position);
+        }
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int c : cells) {
+            if (c == cell) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    // move the blank along a shortest path to the target avoiding locked
+    // cells and the given one, searching near the blank and the target
+    // first
+    private void moveBlank(int target, int avoid) {
+        if (blank == target) {
+            return;
+        }
+
+        int blankRow = blank / dimension;
+        int blankColumn = blank % dimension;
+        int targetRow = target / dimension;
+        int targetColumn = target % dimension;
+        if (search(target, avoid,
+                Math.min(blankRow, targetRow) - 1,
+                Math.max(blankRow, targetRow) + 1,
+                Math.min(blankColumn, targetColumn) - 1,
+                Math.max(blankColumn, targetColumn) + 1)) {
+            return;
+        }
+        if (!search(target, avoid, 0, dimension - 1, 0, dimension - 1)) {
+            throw new IllegalStateException("blank cannot reach " + target);
+        }
+    }
+
+    // breadth-first search of the blank inside the given bounds, moving
+    // it when the target is reached
+    private boolean search(int target, int avoid, int minRow, int maxRow,
+                           int minColumn, int maxColumn) {
+        minRow = Math.max(minRow, top);
+        minColumn = Math.max(minColumn, left);
+        maxRow = Math.min(maxRow, dimension - 1);
+        maxColumn = Math.min(maxColumn, dimension - 1);
+
+        visit++;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = blank;
+        seen[blank] = visit;
+        while (head < tail) {
+            int cell = queue[head++];
+            if (cell == target) {
+                break;
+            }
+            int row = cell / dimension;
+            int column = cell % dimension;
+            for (int i = 0; i < 4; i++) {
+                int next;
+                if (i == 0 && row > minRow) {
+                    next = cell - dimension;
+                } else if (i == 1 && row < maxRow) {
+                    next = cell + dimension;
+                } else if (i == 2 && column > minColumn) {
+                    next = cell - 1;
+                } else if (i == 3 && column < maxColumn) {
+                    next = cell + 1;
+                } else {
+                    continue;
+                }
+                if (seen[next] != visit && !locked[next] && next != avoid) {
+                    seen[next] = visit;
+                    parent[next] = cell;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        if (seen[target] != visit) {
+            return false;
+        }
+
+        int length = 0;
+        for (int cell = target; cell != blank; cell = parent[cell]) {
+            route[length++] = cell;
+        }
+        while (length > 0) {
+            slide(route[--length]);
+        }
+
+        return true;
+    }
+
+    // move blocks a and b to their targets by moving the blank inside the
+    // window only, searching over the positions of a, b and the blank
+    private void arrange(int[] window, int a, int targetA,
+                         int b, int targetB) {
+        int cells = window.length;
+        int[] previous = new int[cells * cells * cells];
+        Arrays.fill(previous, -1);
+        int[] found = new int[previous.length];
+        int start = state(indexOf(window, where[a]),
+            indexOf(window, where[b]), indexOf(window, blank), cells);
+        int goalA = indexOf(window, targetA);
+        int goalB = indexOf(window, targetB);
+
+        int head = 0;
+        int tail = 0;
+        found[tail++] = start;
+        previous[start] = start;
+        int goal = -1;
+        while (head < tail) {
+            int state = found[head++];
+            int posA = state / (cells * cells);
+            int posB = state / cells % cells;
+            int posBlank = state % cells;
+            if (posA == goalA && posB == goalB) {
+                goal = state;
+                break;
+            }
+            for (int next = 0; next < cells; next++) {
+                if (!adjacent(window[posBlank], window[next])) {
+                    continue;
+                }
+                int nextA = posA == next ? posBlank : posA;
+                int nextB = posB == next ? posBlank : posB;
+                int nextState = state(nextA, nextB, next, cells);
+                if (previous[nextState] < 0) {
+                    previous[nextState] = state;
+                    found[tail++] = nextState;
+                }
+            }
+        }
+        if (goal < 0) {
+            throw new IllegalStateException("blocks cannot be arranged");
+        }
+
+        // the found states are no longer needed: reuse them for the route
+        int length = 0;
+        for (int state = goal; state != start; state = previous[state]) {
+            found[length++] = window[state % cells];
+        }
+        while (length > 0) {
+            slide(found[--length]);
+        }
+    }
+
+    private static int state(int a, int b, int blank, int cells) {
+        return (a * cells + b) * cells + blank;
+    }
+
+    private static int indexOf(int[] cells, int cell) {
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == cell) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("cell is not in the window");
+    }
+
+    private boolean adjacent(int cell, int other) {
+        int distance = Math.abs(cell - other);
+        return distance == dimension
+            || distance == 1 && cell / dimension == other / dimension;
+    }
+
+    // slide the block at idx into the blank, recording the move
+    private void slide(int idx) {
+        Move move = Move.between(blank, idx, dimension);
+        int block = blocks[idx];
+        blocks[blank] = block;
+        where[block] = blank;
+        blocks[idx] = 0;
+        where[0] = idx;
+        blank = idx;
+
+        if (count == moves.length) {
+            moves = Arrays.copyOf(moves, 2 * moves.length);
+        }
+        moves[count++] = (byte) move.ordinal();
+        stats.countExpanded();
+        if (listener != null) {
+            listener.moved(move);
+        }
+    }
+
+}
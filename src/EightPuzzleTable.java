@@ -0,0 +1,182 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Exact number of moves to the goal for every 3x3 board, indexed by
+ * the Lehmer code rank of its blocks.
+ *
+ * File format (big endian): magic, followed by one distance byte per
+ * rank, 0xFF marking boards that cannot reach the goal.
+ */
+public class EightPuzzleTable {
+
+    private static final int MAGIC = 0x45505431;
+    private static final int DIMENSION = 3;
+    private static final int CELLS = DIMENSION * DIMENSION;
+    private static final int SIZE = 362880;
+    private static final byte UNREACHABLE = (byte) 0xFF;
+
+    private static final int[] FACTORIALS =
+        new int[]{1, 1, 2, 6, 24, 120, 720, 5040, 40320};
+
+    private final byte[] distances;
+
+    private EightPuzzleTable(byte[] distances) {
+        this.distances = distances;
+    }
+
+    /**
+     * Builds the table by a breadth first search from the goal
+     */
+    public static EightPuzzleTable build() {
+        byte[] distances = new byte[SIZE];
+        Arrays.fill(distances, UNREACHABLE);
+
+        // only boards of the goal's parity are ever enqueued
+        int[] queue = new int[SIZE / 2];
+        int head = 0;
+        int tail = 0;
+
+        int[] blocks = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            blocks[i] = (i + 1) % CELLS;
+        }
+        int goal = rank(blocks);
+        distances[goal] = 0;
+        queue[tail++] = goal;
+
+        int[] steps = new int[]{-DIMENSION, DIMENSION, -1, 1};
+        while (head < tail) {
+            int current = queue[head++];
+            unrank(current, blocks);
+            int blank = 0;
+            while (blocks[blank] != 0) {
+                blank++;
+            }
+
+            for (int step : steps) {
+                int next = blank + step;
+                if (!isAdjacent(blank, next)) {
+                    continue;
+                }
+
+                blocks[blank] = blocks[next];
+                blocks[next] = 0;
+                int nextRank = rank(blocks);
+                if (distances[nextRank] == UNREACHABLE) {
+                    distances[nextRank] = (byte) (distances[current] + 1);
+                    queue[tail++] = nextRank;
+                }
+                blocks[next] = blocks[blank];
+                blocks[blank] = 0;
+            }
+        }
+
+        return new EightPuzzleTable(distances);
+    }
+
+    public static EightPuzzleTable load(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+            throw new IOException("not an 8-puzzle table: " + path);
+        }
+
+        if (buffer.remaining() != SIZE) {
+            throw new IOException("corrupted 8-puzzle table: " + path);
+        }
+
+        byte[] distances = new byte[SIZE];
+        buffer.get(distances);
+
+        return new EightPuzzleTable(distances);
+    }
+
+    /**
+     * Loads the table from the path, building and saving it if missing
+     */
+    public static EightPuzzleTable loadOrBuild(Path path) throws IOException {
+        if (Files.exists(path)) {
+            return load(path);
+        }
+
+        EightPuzzleTable table = build();
+        table.save(path);
+
+        return table;
+    }
+
+    public void save(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 + SIZE);
+        buffer.putInt(MAGIC);
+        buffer.put(distances);
+
+        Files.write(path, buffer.array());
+    }
+
+    /**
+     * Number of moves from the 3x3 board to the goal,
+     * or -1 if the goal cannot be reached
+     */
+    public int distance(Blocks board) {
+        if (board.dimension() != DIMENSION) {
+            throw new IllegalArgumentException("board dimension should be 3");
+        }
+
+        int[] blocks = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            blocks[i] = board.block(i);
+        }
+
+        byte distance = distances[rank(blocks)];
+        return distance == UNREACHABLE ? -1 : distance;
+    }
+
+    private static boolean isAdjacent(int from, int to) {
+        if (to < 0 || to >= CELLS) {
+            return false;
+        }
+
+        return from / DIMENSION == to / DIMENSION
+            || from % DIMENSION == to % DIMENSION;
+    }
+
+    // Lehmer code: for each cell, the number of smaller blocks in
+    // the following cells, weighted by the factorial of cells left
+    private static int rank(int[] blocks) {
+        int rank = 0;
+        for (int i = 0; i < CELLS; i++) {
+            int smaller = 0;
+            for (int j = i + 1; j < CELLS; j++) {
+                if (blocks[j] < blocks[i]) {
+                    smaller++;
+                }
+            }
+            rank += smaller * FACTORIALS[CELLS - 1 - i];
+        }
+
+        return rank;
+    }
+
+    private static void unrank(int rank, int[] blocks) {
+        boolean[] used = new boolean[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            int smaller = rank / FACTORIALS[CELLS - 1 - i];
+            rank %= FACTORIALS[CELLS - 1 - i];
+
+            // the smaller-th block not used by the previous cells
+            int block = 0;
+            while (used[block] || smaller > 0) {
+                if (!used[block]) {
+                    smaller--;
+                }
+                block++;
+            }
+            blocks[i] = block;
+            used[block] = true;
+        }
+    }
+
+}
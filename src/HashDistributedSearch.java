@@ -0,0 +1,351 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hash distributed A* (HDA*): each thread owns the boards whose hash
+ * falls in its share, with its own frontier and closed boards, and sends
+ * the boards it generates to their owners in batches. The search ends
+ * once no thread holds a board that could lead to a shorter solution
+ * than the best one found.
+ */
+class HashDistributedSearch implements SearchEngine {
+
+    // boards sent to another thread at once
+    private static final int BATCH = 64;
+    // expansions between two flushes of the batches and counters
+    private static final int FLUSH_INTERVAL = 256;
+    private static final long IDLE_PARK_NANOS = 50000;
+    // milliseconds between two reports to the stats
+    private static final long REPORT_INTERVAL = 10;
+
+    private final SolverOptions.Frontier frontier;
+    private final Heuristic heuristic;
+    private final double weight;
+    private final int threads;
+
+    private Worker[] workers;
+    // boards sent or queued but not processed yet; a thread counts the
+    // boards it sends before the boards it processes, so that the count
+    // only reaches zero once the search is over
+    private final AtomicLong work = new AtomicLong();
+    private volatile boolean done;
+
+    // shortest solution found so far
+    private volatile int bestMoves = Integer.MAX_VALUE;
+    private Node goal;
+
+    // work not reported to the stats yet
+    private final AtomicLong expanded = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+
+    HashDistributedSearch(SolverOptions.Frontier frontier,
+                          Heuristic heuristic, double weight, int threads) {
+        this.frontier = frontier;
+        this.heuristic = heuristic;
+        this.weight = weight;
+        this.threads = threads;
+    }
+
+    private class Node implements Comparable<Node>, BucketPQ.Item {
+
+        private final Board board;
+        private final Node prev;
+        private final int moves;
+        private final int estimate;
+        private final String key;
+
+        private Node(Board board, Node prev, int moves) {
+            this.board = board;
+            this.prev = prev;
+            this.moves = moves;
+            this.key = board.key();
+            if (prev == null) {
+                this.estimate = heuristic.estimate(board);
+            } else {
+                // the blank moved here from the previous board
+                this.estimate = heuristic.update(
+                    board, prev.estimate, board.blank(), prev.board.blank());
+            }
+        }
+
+        @Override
+        public int priority() {
+            return (int) (weight * estimate) + moves;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int thisPriority = priority();
+            int otherPriority = other.priority();
+
+            if (thisPriority != otherPriority) {
+                return thisPriority - otherPriority;
+            } else {
+                return board.hamming() - other.board.hamming();
+            }
+        }
+    }
+
+    @Override
+    public byte[] solve(Board initial, SearchStats stats) {
+        stats.updateSuboptimality(weight);
+        if (initial.isGoal()) {
+            return new byte[0];
+        }
+
+        CountDownLatch finished = new CountDownLatch(threads);
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(i, finished);
+        }
+        Node root = new Node(initial, null, 0);
+        work.set(1);
+        workers[owner(root.key)].inbox.add(Collections.singletonList(root));
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (finished.await(REPORT_INTERVAL, TimeUnit.MILLISECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                // stopped by the stats below, once the flag is back
+                interrupted = true;
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            report(stats);
+            if (stats.stopped()) {
+                done = true;
+            }
+        }
+        report(stats);
+
+        if (stats.stopped() || goal == null) {
+            return null;
+        }
+
+        return path(goal);
+    }
+
+    private void report(SearchStats stats) {
+        stats.countWork(expanded.getAndSet(0), generated.getAndSet(0),
+            duplicates.getAndSet(0));
+        int frontierSize = 0;
+        int bound = Integer.MAX_VALUE;
+        for (Worker worker : workers) {
+            frontierSize += worker.frontierSize;
+            bound = Math.min(bound, worker.bound);
+        }
+        stats.updateFrontier(frontierSize);
+        if (bound < Integer.MAX_VALUE) {
+            stats.updateBound(bound);
+        }
+    }
+
+    private int owner(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % threads;
+    }
+
+    private synchronized void solved(Node node) {
+        if (node.moves < bestMoves) {
+            goal = node;
+            bestMoves = node.moves;
+        }
+    }
+
+    private class Worker implements Runnable {
+
+        private final int id;
+        private final Thread thread;
+        private final CountDownLatch finished;
+        private final Queue<List<Node>> inbox = new ConcurrentLinkedQueue<>();
+
+        private SearchQueue<Node> searchQueue =
+            AStarSearch.newSearchQueue(frontier);
+        // lowest number of moves known for each owned board
+        private final Map<String, Integer> bestMoves = new HashMap<>();
+        private final List<List<Node>> outboxes = new ArrayList<>();
+
+        // change of the work count not applied yet
+        private long workDelta;
+        private long expandedDelta;
+        private long generatedDelta;
+        private long duplicatesDelta;
+        private int sinceFlush;
+
+        // read by the thread reporting to the stats
+        private volatile int frontierSize;
+        private volatile int bound = Integer.MAX_VALUE;
+
+        private Worker(int id, CountDownLatch finished) {
+            this.id = id;
+            this.finished = finished;
+            this.thread = new Thread(this, "hda-worker-" + id);
+            thread.setDaemon(true);
+            for (int i = 0; i < threads; i++) {
+                outboxes.add(new ArrayList<Node>(BATCH));
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!done) {
+                    receive();
+                    Node min = next();
+                    if (min == null) {
+                        flush();
+                        if (work.get() == 0) {
+                            done = true;
+                            break;
+                        }
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    } else {
+                        expand(min);
+                        if (++sinceFlush == FLUSH_INTERVAL) {
+                            flush();
+                        }
+                    }
+                }
+            } finally {
+                finished.countDown();
+                for (Worker worker : workers) {
+                    LockSupport.unpark(worker.thread);
+                }
+            }
+        }
+
+        private void receive() {
+            List<Node> batch;
+            while ((batch = inbox.poll()) != null) {
+                for (Node node : batch) {
+                    open(node);
+                }
+            }
+        }
+
+        // enqueue an owned board unless already open or closed with the
+        // same or fewer moves
+        private void open(Node node) {
+            Integer known = bestMoves.get(node.key);
+            if (known == null || node.moves < known) {
+                bestMoves.put(node.key, node.moves);
+                searchQueue.add(node);
+            } else {
+                duplicatesDelta++;
+                workDelta--;
+            }
+        }
+
+        // next board to expand, or null when none could lead to a shorter
+        // solution than the best one found
+        private Node next() {
+            while (searchQueue.size() > 0) {
+                Node min = searchQueue.poll();
+                workDelta--;
+                if (min.moves > bestMoves.get(min.key)) {
+                    // superseded by a shorter path to the same board
+                    duplicatesDelta++;
+                    continue;
+                }
+                if (min.priority() >= HashDistributedSearch.this.bestMoves) {
+                    // neither can any other queued board
+                    workDelta -= searchQueue.size();
+                    searchQueue = AStarSearch.newSearchQueue(frontier);
+                    return null;
+                }
+
+                return min;
+            }
+
+            return null;
+        }
+
+        private void expand(Node min) {
+            if (min.board.isGoal()) {
+                solved(min);
+                return;
+            }
+
+            bound = min.priority();
+            expandedDelta++;
+            for (Board board : min.board.neighbors()) {
+                generatedDelta++;
+                if (min.prev != null
+                    && board.blank() == min.prev.board.blank()) {
+                    // back to the previous board
+                    duplicatesDelta++;
+                    continue;
+                }
+
+                Node node = new Node(board, min, min.moves + 1);
+                int owner = owner(node.key);
+                if (owner == id) {
+                    workDelta++;
+                    open(node);
+                } else {
+                    List<Node> outbox = outboxes.get(owner);
+                    outbox.add(node);
+                    if (outbox.size() == BATCH) {
+                        send(owner);
+                    }
+                }
+            }
+        }
+
+        private void send(int owner) {
+            List<Node> batch = outboxes.get(owner);
+            work.addAndGet(batch.size());
+            workers[owner].inbox.add(batch);
+            outboxes.set(owner, new ArrayList<Node>(BATCH));
+            LockSupport.unpark(workers[owner].thread);
+        }
+
+        // send the pending batches, then count the processed boards
+        private void flush() {
+            for (int i = 0; i < threads; i++) {
+                if (!outboxes.get(i).isEmpty()) {
+                    send(i);
+                }
+            }
+            work.addAndGet(workDelta);
+            workDelta = 0;
+            expanded.addAndGet(expandedDelta);
+            generated.addAndGet(generatedDelta);
+            duplicates.addAndGet(duplicatesDelta);
+            expandedDelta = 0;
+            generatedDelta = 0;
+            duplicatesDelta = 0;
+            sinceFlush = 0;
+            frontierSize = searchQueue.size();
+        }
+    }
+
+    private static byte[] path(Node goal) {
+        byte[] moves = new byte[goal.moves];
+        for (Node ptr = goal; ptr.prev != null; ptr = ptr.prev) {
+            moves[ptr.moves - 1] = (byte) Move.between(ptr.prev.board.blank(),
+                ptr.board.blank(), ptr.board.dimension()).ordinal();
+        }
+
+        return moves;
+    }
+
+}
@@ -0,0 +1,12 @@
+/**
+ * Admissible estimate of the number of moves left to reach the goal
+ */
+public interface Heuristic {
+
+    int estimate(Blocks blocks);
+
+    // estimate after the block now at index to slid there from index from,
+    // given the estimate before the move
+    int update(Blocks blocks, int estimate, int from, int to);
+
+}
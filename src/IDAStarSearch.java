@@ -0,0 +1,95 @@
+import java.util.Arrays;
+
+/**
+ * Iterative deepening A* search, using memory proportional
+ * to the solution depth
+ */
+class IDAStarSearch implements SearchEngine {
+
+    private static final int FOUND = -1;
+
+    private final Heuristic heuristic;
+    private final double weight;
+
+    private MutableBoard board;
+    private SearchStats stats;
+    // moves of the current path
+    private byte[] path = new byte[32];
+    private int solutionMoves;
+
+    IDAStarSearch(Heuristic heuristic, double weight) {
+        this.heuristic = heuristic;
+        this.weight = weight;
+    }
+
+    @Override
+    public byte[] solve(Board initial, SearchStats stats) {
+        this.board = new MutableBoard(initial);
+        this.stats = stats;
+
+        stats.updateSuboptimality(weight);
+
+        int estimate = heuristic.estimate(board);
+        int bound = (int) (weight * estimate);
+        while (!stats.stopped()) {
+            stats.updateBound(bound);
+            int next = search(0, estimate, bound, null);
+            if (next == FOUND) {
+                return Arrays.copyOf(path, solutionMoves);
+            }
+            bound = next;
+        }
+
+        return null;
+    }
+
+    // depth-first search below the current board, returning FOUND or the
+    // lowest priority above the bound met while searching
+    private int search(int moves, int estimate, int bound, Move prev) {
+        int priority = moves + (int) (weight * estimate);
+        if (priority > bound) {
+            return priority;
+        }
+
+        if (board.isGoal()) {
+            solutionMoves = moves;
+            return FOUND;
+        }
+
+        if (stats.stopped()) {
+            return Integer.MAX_VALUE;
+        }
+
+        if (moves == path.length) {
+            path = Arrays.copyOf(path, 2 * path.length);
+        }
+        stats.updateFrontier(moves);
+        stats.countExpanded();
+
+        int min = Integer.MAX_VALUE;
+        int blank = board.blank();
+        int legal = board.legalMoves();
+        if (prev != null) {
+            // never undo the previous move
+            legal &= ~(1 << prev.opposite().ordinal());
+        }
+        for (; legal != 0; legal &= legal - 1) {
+            Move move = Move.of(Integer.numberOfTrailingZeros(legal));
+
+            stats.countGenerated();
+            path[moves] = (byte) move.ordinal();
+            board.applyMove(move);
+            int result = search(moves + 1, heuristic.update(
+                board, estimate, board.blank(), blank), bound, move);
+            board.undoMove(move);
+
+            if (result == FOUND) {
+                return FOUND;
+            }
+            min = Math.min(min, result);
+        }
+
+        return min;
+    }
+
+}
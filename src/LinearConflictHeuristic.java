@@ -0,0 +1,85 @@
+/**
+ * Manhattan distance plus two moves for every block that has to leave
+ * its goal row or column to let another block in the same line pass
+ */
+public class LinearConflictHeuristic implements Heuristic {
+
+    private final ManhattanHeuristic manhattan = new ManhattanHeuristic();
+
+    @Override
+    public int estimate(Blocks blocks) {
+        int conflicts = 0;
+        for (int line = 0; line < blocks.dimension(); line++) {
+            conflicts += lineConflicts(blocks, line, true, -1, -1);
+            conflicts += lineConflicts(blocks, line, false, -1, -1);
+        }
+
+        return manhattan.estimate(blocks) + 2 * conflicts;
+    }
+
+    @Override
+    public int update(Blocks blocks, int estimate, int from, int to) {
+        int dimension = blocks.dimension();
+        // a vertical move changes the order of two rows only,
+        // a horizontal move the order of two columns only
+        boolean rows = from % dimension == to % dimension;
+        int fromLine = rows ? from / dimension : from % dimension;
+        int toLine = rows ? to / dimension : to % dimension;
+
+        int before = lineConflicts(blocks, fromLine, rows, from, to)
+            + lineConflicts(blocks, toLine, rows, from, to);
+        int after = lineConflicts(blocks, fromLine, rows, -1, -1)
+            + lineConflicts(blocks, toLine, rows, -1, -1);
+
+        return manhattan.update(blocks, estimate, from, to)
+            + 2 * (after - before);
+    }
+
+    // number of blocks to remove from a line so that the remaining blocks
+    // in their goal line are in goal order, reading the blocks at indexes
+    // swapA and swapB swapped
+    private static int lineConflicts(Blocks blocks, int line, boolean row,
+                                     int swapA, int swapB) {
+        int dimension = blocks.dimension();
+        // goal positions ending the increasing runs found so far, the
+        // shortest run of each length (patience sorting), one bit per
+        // position of a line of at most 127 blocks
+        long lowEnds = 0;
+        long highEnds = 0;
+        int count = 0;
+
+        for (int k = 0; k < dimension; k++) {
+            int idx = row ? line * dimension + k : k * dimension + line;
+            int block = blocks.block(
+                idx == swapA ? swapB : idx == swapB ? swapA : idx);
+            if (block == 0) {
+                continue;
+            }
+
+            int goalLine = row ? (block - 1) / dimension : (block - 1) % dimension;
+            if (goalLine != line) {
+                continue;
+            }
+
+            // the block ends the run of the first end above its goal
+            // position, or a new longest run
+            int goal = row ? (block - 1) % dimension : (block - 1) / dimension;
+            if (goal < 64) {
+                long above = lowEnds & -1L << goal;
+                if (above != 0) {
+                    lowEnds &= ~Long.lowestOneBit(above);
+                } else {
+                    highEnds &= ~Long.lowestOneBit(highEnds);
+                }
+                lowEnds |= 1L << goal;
+            } else {
+                highEnds &= ~Long.lowestOneBit(highEnds & -1L << goal - 64);
+                highEnds |= 1L << goal - 64;
+            }
+            count++;
+        }
+
+        return count - Long.bitCount(lowEnds) - Long.bitCount(highEnds);
+    }
+
+}
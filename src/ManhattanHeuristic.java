@@ -0,0 +1,42 @@
+/**
+ * Sum of the Manhattan distances of the blocks to their goal positions
+ */
+public class ManhattanHeuristic implements Heuristic {
+
+    @Override
+    public int estimate(Blocks blocks) {
+        if (blocks instanceof Board) {
+            return ((Board) blocks).manhattan();
+        }
+
+        int estimate = 0;
+        int size = blocks.dimension() * blocks.dimension();
+        for (int i = 0; i < size; i++) {
+            int block = blocks.block(i);
+            if (block != 0) {
+                estimate += distance(blocks.dimension(), block, i);
+            }
+        }
+
+        return estimate;
+    }
+
+    @Override
+    public int update(Blocks blocks, int estimate, int from, int to) {
+        int block = blocks.block(to);
+
+        return estimate
+            - distance(blocks.dimension(), block, from)
+            + distance(blocks.dimension(), block, to);
+    }
+
+    static int distance(int dimension, int block, int idx) {
+        int currentRow = idx / dimension;
+        int currentCol = idx - currentRow * dimension;
+        int finalRow = (block - 1) / dimension;
+        int finalCol = (block - 1) - finalRow * dimension;
+
+        return Math.abs(finalRow - currentRow) + Math.abs(finalCol - currentCol);
+    }
+
+}
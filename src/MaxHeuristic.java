@@ -0,0 +1,44 @@
+/**
+ * Largest estimate of several admissible heuristics
+ */
+public class MaxHeuristic implements Heuristic {
+
+    private final Heuristic[] heuristics;
+
+    public MaxHeuristic(Heuristic... heuristics) {
+        if (heuristics == null) {
+            throw new NullPointerException("heuristics are null");
+        }
+
+        if (heuristics.length == 0) {
+            throw new IllegalArgumentException("heuristics are empty");
+        }
+
+        for (Heuristic heuristic : heuristics) {
+            if (heuristic == null) {
+                throw new NullPointerException("heuristic is null");
+            }
+        }
+
+        this.heuristics = heuristics.clone();
+    }
+
+    @Override
+    public int estimate(Blocks blocks) {
+        int max = 0;
+        for (Heuristic heuristic : heuristics) {
+            max = Math.max(max, heuristic.estimate(blocks));
+        }
+
+        return max;
+    }
+
+    // only the largest estimate is kept per board, so the estimates of
+    // the other heuristics before the move are unknown and have to be
+    // evaluated again
+    @Override
+    public int update(Blocks blocks, int estimate, int from, int to) {
+        return estimate(blocks);
+    }
+
+}
@@ -2,7 +2,8 @@
  * Min priority queue implementation with a binary heap
  * and sorting using natural order
  */
-public class MinPQ<T extends Object & Comparable<? super T>> {
+public class MinPQ<T extends Object & Comparable<? super T>>
+    implements SearchQueue<T> {
 
     private T[] pq;
     private int size;
@@ -14,10 +15,12 @@ public class MinPQ<T extends Object & Comparable<? super T>> {
         size = 0;
     }
 
+    @Override
     public int size() {
         return size;
     }
 
+    @Override
     public void add(T item) {
         if (item == null) {
             throw new NullPointerException("item is null");
@@ -46,6 +49,7 @@ public class MinPQ<T extends Object & Comparable<? super T>> {
         }
     }
 
+    @Override
     public T poll() {
         T min = null;
         if (size > 0) {
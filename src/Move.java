@@ -0,0 +1,70 @@
+/**
+ * Direction in which a move takes the blank
+ */
+public enum Move {
+
+    UP('U'), DOWN('D'), LEFT('L'), RIGHT('R');
+
+    // values() clones its array on each call
+    private static final Move[] MOVES = values();
+
+    private final char letter;
+
+    Move(char letter) {
+        this.letter = letter;
+    }
+
+    public char letter() {
+        return letter;
+    }
+
+    public Move opposite() {
+        return MOVES[ordinal() ^ 1];
+    }
+
+    static Move of(int ordinal) {
+        return MOVES[ordinal];
+    }
+
+    static String sequence(byte[] moves) {
+        char[] letters = new char[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            letters[i] = MOVES[moves[i]].letter;
+        }
+
+        return new String(letters);
+    }
+
+    // move taking the blank between two adjacent positions
+    static Move between(int from, int to, int dimension) {
+        int step = to - from;
+        if (step == -dimension) {
+            return UP;
+        } else if (step == dimension) {
+            return DOWN;
+        } else if (step == -1) {
+            return LEFT;
+        } else if (step == 1) {
+            return RIGHT;
+        } else {
+            throw new IllegalArgumentException("positions are not adjacent");
+        }
+    }
+
+    // index the blank moves to from the given position, or -1 when the
+    // move would take it off the board
+    int target(int blank, int dimension) {
+        switch (this) {
+            case UP:
+                return blank >= dimension ? blank - dimension : -1;
+            case DOWN:
+                return blank < dimension * (dimension - 1)
+                    ? blank + dimension : -1;
+            case LEFT:
+                return blank % dimension != 0 ? blank - 1 : -1;
+            default:
+                return blank % dimension != dimension - 1 ? blank + 1 : -1;
+        }
+    }
+
+}
@@ -0,0 +1,10 @@
+/**
+ * Receives the moves of a solution one at a time
+ */
+public interface MoveListener {
+
+    // the constructive algorithm calls this while solving, the others
+    // once for each move after finding the whole solution
+    void moved(Move move);
+
+}
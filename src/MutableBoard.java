@@ -0,0 +1,113 @@
+/**
+ * Board moved in place, for search loops that should not allocate a
+ * new board per node
+ */
+public class MutableBoard implements Blocks {
+
+    private final int dimension;
+    private final char[] blocks;
+    private int blank;
+    private int manhattan;
+
+    public MutableBoard(Board board) {
+        if (board == null) {
+            throw new NullPointerException("board is null");
+        }
+
+        dimension = board.dimension();
+        blocks = new char[dimension * dimension];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = (char) board.block(i);
+        }
+        blank = board.blank();
+        manhattan = board.manhattan();
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public int block(int idx) {
+        return blocks[idx];
+    }
+
+    public int blank() {
+        return blank;
+    }
+
+    public int manhattan() {
+        return manhattan;
+    }
+
+    public boolean isGoal() {
+        return manhattan == 0;
+    }
+
+    public boolean canMove(Move move) {
+        return move.target(blank, dimension) >= 0;
+    }
+
+    // legal moves as a bit set, with bit move.ordinal() set for each
+    // move that keeps the blank on the board
+    public int legalMoves() {
+        int row = blank / dimension;
+        int col = blank % dimension;
+        int moves = 0;
+        if (row > 0) {
+            moves |= 1 << Move.UP.ordinal();
+        }
+        if (row < dimension - 1) {
+            moves |= 1 << Move.DOWN.ordinal();
+        }
+        if (col > 0) {
+            moves |= 1 << Move.LEFT.ordinal();
+        }
+        if (col < dimension - 1) {
+            moves |= 1 << Move.RIGHT.ordinal();
+        }
+
+        return moves;
+    }
+
+    public void applyMove(Move move) {
+        int target = move.target(blank, dimension);
+        if (target < 0) {
+            throw new IllegalArgumentException(
+                "move " + move + " takes the blank off the board");
+        }
+
+        slide(target);
+    }
+
+    public void undoMove(Move move) {
+        applyMove(move.opposite());
+    }
+
+    public Board toBoard() {
+        int[][] rows = new int[dimension][dimension];
+        for (int i = 0; i < blocks.length; i++) {
+            rows[i / dimension][i % dimension] = blocks[i];
+        }
+
+        return new Board(rows);
+    }
+
+    // slide the block at idx into the blank; sliding the block at the
+    // previous blank position back undoes the move
+    void slide(int idx) {
+        char block = blocks[idx];
+        manhattan += ManhattanHeuristic.distance(dimension, block, blank)
+            - ManhattanHeuristic.distance(dimension, block, idx);
+        blocks[blank] = block;
+        blocks[idx] = 0;
+        blank = idx;
+    }
+
+    @Override
+    public String toString() {
+        return toBoard().toString();
+    }
+
+}
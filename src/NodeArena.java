@@ -0,0 +1,143 @@
+import java.util.Arrays;
+
+/**
+ * Search nodes of boards up to 4x4 kept in parallel primitive arrays and
+ * addressed by int ids: the packed board (4 bits per block), the blank,
+ * the parent id, the moves from the initial board and the estimate. An
+ * open-addressing index of ids finds the node of a packed board, so a
+ * node costs some 25 bytes instead of a few objects.
+ */
+class NodeArena {
+
+    static final int NO_PARENT = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] states;
+    private int[] parents;
+    // moves and estimates stay far below 65536 on boards up to 4x4
+    private char[] moves;
+    private char[] estimates;
+    private byte[] blanks;
+    private int size;
+
+    // id + 1 of the node stored in each slot, 0 for empty slots; kept at
+    // most half full
+    private int[] slots;
+
+    NodeArena(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity is negative");
+        }
+
+        capacity = Math.max(capacity, MIN_CAPACITY);
+        states = new long[capacity];
+        parents = new int[capacity];
+        moves = new char[capacity];
+        estimates = new char[capacity];
+        blanks = new byte[capacity];
+        slots = new int[Integer.highestOneBit(capacity - 1) << 2];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Id of the node of the packed board, or -1 when there is none
+     */
+    int find(long state) {
+        int mask = slots.length - 1;
+        for (int slot = (int) PackedBoards.hash(state) & mask;
+             slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (states[id] == state) {
+                return id;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Id of a new node for a packed board not in the arena yet
+     */
+    int add(long state, int blank, int parent, int moves, int estimate) {
+        if (size == states.length) {
+            grow();
+        }
+
+        int id = size++;
+        states[id] = state;
+        blanks[id] = (byte) blank;
+        parents[id] = parent;
+        this.moves[id] = (char) moves;
+        estimates[id] = (char) estimate;
+        index(id);
+
+        return id;
+    }
+
+    /**
+     * Records a shorter path to a node
+     */
+    void reach(int id, int parent, int moves) {
+        parents[id] = parent;
+        this.moves[id] = (char) moves;
+    }
+
+    long state(int id) {
+        return states[id];
+    }
+
+    int blank(int id) {
+        return blanks[id];
+    }
+
+    int parent(int id) {
+        return parents[id];
+    }
+
+    int moves(int id) {
+        return moves[id];
+    }
+
+    int estimate(int id) {
+        return estimates[id];
+    }
+
+    private void index(int id) {
+        if (2 * size > slots.length) {
+            // rehash every node, this one included
+            slots = new int[2 * slots.length];
+            for (int i = 0; i < size; i++) {
+                insert(i);
+            }
+        } else {
+            insert(id);
+        }
+    }
+
+    private void insert(int id) {
+        int mask = slots.length - 1;
+        int slot = (int) PackedBoards.hash(states[id]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id + 1;
+    }
+
+    private void grow() {
+        int capacity = states.length + (states.length >> 1);
+        if (capacity < 0) {
+            throw new IllegalStateException("too many nodes");
+        }
+
+        states = Arrays.copyOf(states, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        moves = Arrays.copyOf(moves, capacity);
+        estimates = Arrays.copyOf(estimates, capacity);
+        blanks = Arrays.copyOf(blanks, capacity);
+    }
+
+}
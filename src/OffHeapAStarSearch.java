@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A* search over boards up to 4x4 detecting duplicates in an
+ * OffHeapStateTable, for searches whose closed set outgrows the heap:
+ * the frontier holds packed boards, and the path is followed back from
+ * the goal through the parent moves kept in the table
+ */
+class OffHeapAStarSearch implements SearchEngine {
+
+    private static final Move[] MOVES = Move.values();
+    // expansions between two updates of the table metrics
+    private static final int METRICS_INTERVAL = 1024;
+
+    private final SolverOptions.Frontier frontier;
+    private final Heuristic heuristic;
+    private final double weight;
+    private final long memoryLimit;
+    private final Path spillDirectory;
+
+    private OffHeapStateTable table;
+
+    OffHeapAStarSearch(SolverOptions.Frontier frontier, Heuristic heuristic,
+                       double weight, long memoryLimit, Path spillDirectory) {
+        this.frontier = frontier;
+        this.heuristic = heuristic;
+        this.weight = weight;
+        this.memoryLimit = memoryLimit;
+        this.spillDirectory = spillDirectory;
+    }
+
+    @Override
+    public byte[] solve(Board initial, SearchStats stats) {
+        table = new OffHeapStateTable(memoryLimit, spillDirectory);
+        try {
+            return search(initial, stats);
+        } finally {
+            updateMetrics(stats);
+            try {
+                table.close();
+            } catch (IOException e) {
+                // a spill file stays behind, the search is over anyway
+            }
+        }
+    }
+
+    private byte[] search(Board initial, SearchStats stats) {
+        stats.updateSuboptimality(weight);
+        int dimension = initial.dimension();
+        long goal = PackedBoards.goal(dimension);
+        PackedBoards.View view = new PackedBoards.View(dimension);
+        PackedBoards.Queue open = PackedBoards.newQueue(frontier, true);
+
+        long initialState = initial.packed();
+        long root = table.insert(table.find(initialState), initialState, 0,
+            heuristic.estimate(initial), initial.blank(),
+            OffHeapStateTable.NO_MOVE);
+        open.add(initialState, priority(root), initial.hamming());
+        stats.updateFrontier(open.size());
+
+        while (!stats.stopped()) {
+            if (open.size() == 0) {
+                return null;
+            }
+            int priority = open.minPriority();
+            long state = open.poll();
+            stats.updateFrontier(open.size());
+            long slot = table.find(state);
+            if (priority != priority(slot)) {
+                // superseded by a shorter path to the same board
+                stats.countDuplicate();
+                continue;
+            }
+            if (state == goal) {
+                return path(state, dimension);
+            }
+            stats.updateBound(priority);
+            stats.countExpanded();
+            if (stats.expanded() % METRICS_INTERVAL == 0) {
+                updateMetrics(stats);
+            }
+
+            int blank = table.blank(slot);
+            int estimate = table.estimate(slot);
+            int moves = table.moves(slot) + 1;
+            for (Move move : MOVES) {
+                int target = move.target(blank, dimension);
+                if (target < 0) {
+                    continue;
+                }
+
+                stats.countGenerated();
+                long child = PackedBoards.slide(state, target, blank);
+                long childSlot = table.find(child);
+                if (childSlot < 0) {
+                    childSlot = table.insert(childSlot, child, moves,
+                        heuristic.update(view.state(child), estimate, target,
+                            blank),
+                        target, move.ordinal());
+                } else if (moves < table.moves(childSlot)) {
+                    // a shorter path reopens a closed board
+                    table.reach(childSlot, moves, move.ordinal());
+                } else {
+                    stats.countDuplicate();
+                    continue;
+                }
+                open.add(child, priority(childSlot),
+                    PackedBoards.hamming(child, dimension));
+                stats.updateFrontier(open.size());
+            }
+        }
+
+        return null;
+    }
+
+    private int priority(long slot) {
+        // rounding the weighted estimate down keeps the solution
+        // within weight times the optimal length
+        return (int) (weight * table.estimate(slot)) + table.moves(slot);
+    }
+
+    private void updateMetrics(SearchStats stats) {
+        stats.updateClosedSet(table.size(), table.loadFactor(),
+            table.averageProbes(), table.maxProbes(), table.spilledBytes());
+    }
+
+    // moves back from the goal to the initial board, undoing the parent
+    // move of each board; a parent never has more moves than its child
+    // less one, so there are at most as many as the goal has
+    private byte[] path(long goal, int dimension) {
+        byte[] moves = new byte[table.moves(table.find(goal))];
+        int count = 0;
+        long state = goal;
+        for (long slot = table.find(state);
+             table.parentMove(slot) != OffHeapStateTable.NO_MOVE;
+             slot = table.find(state)) {
+            Move move = Move.of(table.parentMove(slot));
+            moves[count++] = (byte) move.ordinal();
+
+            int blank = table.blank(slot);
+            // the block now at the previous blank slides back
+            state = PackedBoards.slide(state,
+                move.opposite().target(blank, dimension), blank);
+        }
+
+        byte[] path = new byte[count];
+        for (int i = 0; i < count; i++) {
+            path[i] = moves[count - 1 - i];
+        }
+
+        return path;
+    }
+
+}
@@ -0,0 +1,317 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Open-addressing hash table from packed boards up to 4x4 to the moves,
+ * estimate, blank and parent move of their search node, kept outside the
+ * heap in 16-byte slots with linear probing. Slots live in direct buffers
+ * up to a memory limit and in memory-mapped temporary files beyond it,
+ * so that a large search slows down instead of running out of memory.
+ */
+class OffHeapStateTable implements Closeable {
+
+    static final int NO_MOVE = -1;
+
+    private static final int SLOT_BYTES = 16;
+    private static final int MIN_CAPACITY = 1 << 12;
+    // slots per buffer, 64 MB
+    private static final int SEGMENT_SHIFT = 22;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+    // the table doubles once it is 70% full
+    private static final int MAX_LOAD_PERCENT = 70;
+
+    // slot layout; a zero board marks an empty slot, as no board packs to 0
+    private static final int STATE = 0;
+    private static final int MOVES = 8;
+    private static final int ESTIMATE = 10;
+    private static final int BLANK = 12;
+    private static final int PARENT_MOVE = 13;
+
+    private final long memoryLimit;
+    private final Path spillDirectory;
+
+    private Storage storage;
+    private long size;
+    private long directBytes;
+    private long spilledBytes;
+
+    // probes made by lookups and insertions
+    private long lookups;
+    private long probes;
+    private int maxProbes;
+
+    /**
+     * Table taking at most memoryLimit bytes of direct memory, then
+     * spilling to temporary files in the given directory
+     */
+    OffHeapStateTable(long memoryLimit, Path spillDirectory) {
+        if (memoryLimit < 0) {
+            throw new IllegalArgumentException("memory limit is negative");
+        }
+        if (spillDirectory == null) {
+            throw new NullPointerException("spill directory is null");
+        }
+
+        this.memoryLimit = memoryLimit;
+        this.spillDirectory = spillDirectory;
+        this.storage = new Storage(MIN_CAPACITY, 0);
+    }
+
+    long size() {
+        return size;
+    }
+
+    long capacity() {
+        return storage.capacity;
+    }
+
+    double loadFactor() {
+        return (double) size / storage.capacity;
+    }
+
+    // slots read per lookup or insertion, on average
+    double averageProbes() {
+        return lookups == 0 ? 0 : (double) probes / lookups;
+    }
+
+    // longest run of slots read by a single lookup or insertion
+    int maxProbes() {
+        return maxProbes;
+    }
+
+    long directBytes() {
+        return directBytes;
+    }
+
+    long spilledBytes() {
+        return spilledBytes;
+    }
+
+    /**
+     * Slot of the packed board if in the table, or -(slot + 1) for the
+     * empty slot where it goes
+     */
+    long find(long state) {
+        Storage s = storage;
+        long mask = s.capacity - 1;
+        long slot = PackedBoards.hash(state) & mask;
+        int count = 1;
+        while (true) {
+            long found = s.state(slot);
+            if (found == state || found == 0) {
+                countProbes(count);
+                return found == 0 ? -(slot + 1) : slot;
+            }
+            slot = (slot + 1) & mask;
+            count++;
+        }
+    }
+
+    /**
+     * Slot of a board put where find() placed it, moving the whole table
+     * when it gets too full
+     */
+    long insert(long emptySlot, long state, int moves, int estimate,
+                int blank, int parentMove) {
+        if (emptySlot >= 0) {
+            throw new IllegalArgumentException("slot is not empty");
+        }
+
+        long slot = -emptySlot - 1;
+        if (100 * (size + 1) > MAX_LOAD_PERCENT * storage.capacity) {
+            grow();
+            slot = -find(state) - 1;
+        }
+        storage.put(slot, state, moves, estimate, blank, parentMove);
+        size++;
+
+        return slot;
+    }
+
+    /**
+     * Records a shorter path to the board in the slot
+     */
+    void reach(long slot, int moves, int parentMove) {
+        ByteBuffer segment = storage.segment(slot);
+        int offset = offset(slot);
+        segment.putChar(offset + MOVES, (char) moves);
+        segment.put(offset + PARENT_MOVE, (byte) parentMove);
+    }
+
+    long state(long slot) {
+        return storage.state(slot);
+    }
+
+    int moves(long slot) {
+        return storage.segment(slot).getChar(offset(slot) + MOVES);
+    }
+
+    int estimate(long slot) {
+        return storage.segment(slot).getChar(offset(slot) + ESTIMATE);
+    }
+
+    int blank(long slot) {
+        return storage.segment(slot).get(offset(slot) + BLANK);
+    }
+
+    // ordinal of the move reaching the board from its parent, or NO_MOVE
+    int parentMove(long slot) {
+        return storage.segment(slot).get(offset(slot) + PARENT_MOVE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        storage.close();
+    }
+
+    private void countProbes(int count) {
+        lookups++;
+        probes += count;
+        maxProbes = Math.max(maxProbes, count);
+    }
+
+    private void grow() {
+        Storage old = storage;
+        // the old slots are dropped once copied, so they do not take from
+        // the memory left to the new ones
+        storage = new Storage(2 * old.capacity, old.direct);
+        long mask = storage.capacity - 1;
+        for (long i = 0; i < old.capacity; i++) {
+            long state = old.state(i);
+            if (state == 0) {
+                continue;
+            }
+
+            long slot = PackedBoards.hash(state) & mask;
+            while (storage.state(slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            ByteBuffer segment = old.segment(i);
+            int offset = offset(i);
+            storage.put(slot, state, segment.getChar(offset + MOVES),
+                segment.getChar(offset + ESTIMATE),
+                segment.get(offset + BLANK), segment.get(offset + PARENT_MOVE));
+        }
+
+        try {
+            old.close();
+        } catch (IOException e) {
+            // the old file stays behind in the spill directory
+        }
+    }
+
+    // position of the slot in its buffer
+    private static int offset(long slot) {
+        return (int) (slot & SEGMENT_MASK) * SLOT_BYTES;
+    }
+
+    // slots of one size of the table, in direct buffers first and in a
+    // file mapped into memory once the memory limit is reached
+    private class Storage implements Closeable {
+
+        private final long capacity;
+        // direct bytes of the storage being replaced, not counted against
+        // the memory limit
+        private final long replaced;
+        private final ByteBuffer[] segments;
+        private long direct;
+        private long spilled;
+        private Path file;
+        private FileChannel channel;
+
+        private Storage(long capacity, long replaced) {
+            this.capacity = capacity;
+            this.replaced = replaced;
+            long segmentSlots = Math.min(capacity, 1L << SEGMENT_SHIFT);
+            int bytes = (int) (segmentSlots * SLOT_BYTES);
+            segments = new ByteBuffer[(int) (capacity / segmentSlots)];
+
+            try {
+                for (int i = 0; i < segments.length; i++) {
+                    segments[i] = allocate(bytes);
+                }
+            } catch (IOException e) {
+                closeQuietly();
+                throw new IllegalStateException(
+                    "cannot spill the closed set to " + spillDirectory, e);
+            }
+        }
+
+        private ByteBuffer allocate(int bytes) throws IOException {
+            if (directBytes - replaced + bytes <= memoryLimit) {
+                try {
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes);
+                    direct += bytes;
+                    directBytes += bytes;
+                    return buffer;
+                } catch (OutOfMemoryError e) {
+                    // out of direct memory below the limit, spill instead
+                }
+            }
+
+            if (channel == null) {
+                file = Files.createTempFile(spillDirectory, "closed-set",
+                    ".tmp");
+                channel = FileChannel.open(file, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            }
+            // mapping past the end grows the file with zeros
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE,
+                spilled, bytes);
+            spilled += bytes;
+            spilledBytes += bytes;
+            return buffer;
+        }
+
+        private ByteBuffer segment(long slot) {
+            return segments[(int) (slot >>> SEGMENT_SHIFT)];
+        }
+
+        private long state(long slot) {
+            return segment(slot).getLong(offset(slot) + STATE);
+        }
+
+        private void put(long slot, long state, int moves, int estimate,
+                         int blank, int parentMove) {
+            ByteBuffer segment = segment(slot);
+            int offset = offset(slot);
+            segment.putLong(offset + STATE, state);
+            segment.putChar(offset + MOVES, (char) moves);
+            segment.putChar(offset + ESTIMATE, (char) estimate);
+            segment.put(offset + BLANK, (byte) blank);
+            segment.put(offset + PARENT_MOVE, (byte) parentMove);
+        }
+
+        // direct buffers and mappings are released once collected; the
+        // file goes right away
+        @Override
+        public void close() throws IOException {
+            directBytes -= direct;
+            spilledBytes -= spilled;
+            direct = 0;
+            spilled = 0;
+            if (channel != null) {
+                try {
+                    channel.close();
+                } finally {
+                    Files.deleteIfExists(file);
+                    channel = null;
+                }
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                close();
+            } catch (IOException e) {
+                // already failing
+            }
+        }
+    }
+
+}
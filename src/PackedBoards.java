@@ -0,0 +1,264 @@
+import java.util.Arrays;
+
+/**
+ * Boards up to 4x4 packed into a long as Board keeps them, 4 bits per
+ * block from index 0 up, and a frontier of packed boards or node ids for
+ * the searches working on them
+ */
+final class PackedBoards {
+
+    private PackedBoards() {
+    }
+
+    static long goal(int dimension) {
+        long state = 0;
+        for (int i = 0; i < dimension * dimension - 1; i++) {
+            state |= (long) (i + 1) << 4 * i;
+        }
+
+        return state;
+    }
+
+    static int block(long state, int idx) {
+        return (int) (state >>> 4 * idx) & 0xF;
+    }
+
+    // board after sliding the block at an index into the blank
+    static long slide(long state, int from, int blank) {
+        long block = (state >>> 4 * from) & 0xF;
+        return state - (block << 4 * from) + (block << 4 * blank);
+    }
+
+    // number of blocks out of place
+    static int hamming(long state, int dimension) {
+        int hamming = 0;
+        for (int i = 0; i < dimension * dimension; i++) {
+            int block = block(state, i);
+            if (block != 0 && block != i + 1) {
+                hamming++;
+            }
+        }
+
+        return hamming;
+    }
+
+    // spreads the block bits over the whole long, low bits included
+    static long hash(long state) {
+        long h = (state ^ (state >>> 29)) * 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * Blocks of one packed board at a time, for the heuristics
+     */
+    static class View implements Blocks {
+
+        private final int dimension;
+        private long state;
+
+        View(int dimension) {
+            this.dimension = dimension;
+        }
+
+        View state(long state) {
+            this.state = state;
+            return this;
+        }
+
+        @Override
+        public int dimension() {
+            return dimension;
+        }
+
+        @Override
+        public int block(int idx) {
+            return PackedBoards.block(state, idx);
+        }
+    }
+
+    /**
+     * Frontier of packed boards or node ids, each with the priority it
+     * was queued with
+     */
+    interface Queue {
+
+        int size();
+
+        void add(long item, int priority, int hamming);
+
+        // priority of the item poll() returns next
+        int minPriority();
+
+        long poll();
+    }
+
+    /**
+     * Frontier for items that fit in an int (node ids) or take a whole
+     * long (packed boards); node ids take half the memory
+     */
+    static Queue newQueue(SolverOptions.Frontier frontier, boolean wide) {
+        if (frontier == SolverOptions.Frontier.BUCKET) {
+            return new Buckets(wide);
+        } else {
+            return new Heap(wide);
+        }
+    }
+
+    // binary heap ordering by priority, then by hamming distance; each key
+    // holds the low half of its item, and the high halves of wide items
+    // move along in a parallel array
+    private static class Heap implements Queue {
+
+        private long[] keys = new long[64];
+        private int[] highs;
+        private int size;
+
+        private Heap(boolean wide) {
+            highs = wide ? new int[64] : null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void add(long item, int priority, int hamming) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                if (highs != null) {
+                    highs = Arrays.copyOf(highs, 2 * size);
+                }
+            }
+
+            long key = (long) priority << 40 | (long) hamming << 32
+                | (item & 0xFFFFFFFFL);
+            int high = (int) (item >>> 32);
+            int k = size++;
+            while (k > 0 && keys[(k - 1) >>> 1] > key) {
+                move((k - 1) >>> 1, k);
+                k = (k - 1) >>> 1;
+            }
+            keys[k] = key;
+            if (highs != null) {
+                highs[k] = high;
+            }
+        }
+
+        @Override
+        public int minPriority() {
+            return (int) (keys[0] >>> 40);
+        }
+
+        @Override
+        public long poll() {
+            long min = item(0);
+            size--;
+            long lastKey = keys[size];
+            int lastHigh = highs == null ? 0 : highs[size];
+            int k = 0;
+            int half = size >>> 1;
+            while (k < half) {
+                int child = 2 * k + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (lastKey <= keys[child]) {
+                    break;
+                }
+                move(child, k);
+                k = child;
+            }
+            keys[k] = lastKey;
+            if (highs != null) {
+                highs[k] = lastHigh;
+            }
+
+            return min;
+        }
+
+        private long item(int k) {
+            long low = keys[k] & 0xFFFFFFFFL;
+            return highs == null ? low : (long) highs[k] << 32 | low;
+        }
+
+        private void move(int from, int to) {
+            keys[to] = keys[from];
+            if (highs != null) {
+                highs[to] = highs[from];
+            }
+        }
+    }
+
+    // one LIFO stack of items per priority, in halves as in the heap
+    private static class Buckets implements Queue {
+
+        private final boolean wide;
+        private int[][] lows = new int[64][];
+        private int[][] highs = new int[64][];
+        private int[] bucketSizes = new int[64];
+        private int min;
+        private int size;
+
+        private Buckets(boolean wide) {
+            this.wide = wide;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void add(long item, int priority, int hamming) {
+            if (priority >= lows.length) {
+                int length = Math.max(2 * lows.length, priority + 1);
+                lows = Arrays.copyOf(lows, length);
+                highs = Arrays.copyOf(highs, length);
+                bucketSizes = Arrays.copyOf(bucketSizes, length);
+            }
+
+            int bucketSize = bucketSizes[priority];
+            if (lows[priority] == null) {
+                lows[priority] = new int[16];
+                if (wide) {
+                    highs[priority] = new int[16];
+                }
+            } else if (lows[priority].length == bucketSize) {
+                lows[priority] = Arrays.copyOf(lows[priority], 2 * bucketSize);
+                if (wide) {
+                    highs[priority] =
+                        Arrays.copyOf(highs[priority], 2 * bucketSize);
+                }
+            }
+
+            lows[priority][bucketSize] = (int) item;
+            if (wide) {
+                highs[priority][bucketSize] = (int) (item >>> 32);
+            }
+            bucketSizes[priority]++;
+            if (size == 0 || priority < min) {
+                min = priority;
+            }
+            size++;
+        }
+
+        @Override
+        public int minPriority() {
+            while (bucketSizes[min] == 0) {
+                min++;
+            }
+
+            return min;
+        }
+
+        @Override
+        public long poll() {
+            size--;
+            int k = --bucketSizes[minPriority()];
+            long low = lows[min][k] & 0xFFFFFFFFL;
+            return wide ? (long) highs[min][k] << 32 | low : low;
+        }
+    }
+
+}
@@ -0,0 +1,263 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Iterative deepening A* sharing each iteration between threads: the
+ * search tree is split into subtrees near its root, which a fork/join
+ * pool walks depth-first, idle threads stealing the subtrees left. Every
+ * subtree stops as soon as one of them finds a solution.
+ */
+class ParallelIDAStarSearch implements SearchEngine {
+
+    private static final int FOUND = -1;
+    // subtrees per thread, roughly, at the depth where the tree is split
+    private static final int SUBTREES_PER_THREAD = 64;
+    // expansions between two flushes of the counters
+    private static final int FLUSH_INTERVAL = 1024;
+    // milliseconds between two reports to the stats
+    private static final long REPORT_INTERVAL = 10;
+
+    private final Heuristic heuristic;
+    private final double weight;
+    private final int threads;
+    // depth above which subtrees are forked rather than walked
+    private final int splitDepth;
+
+    private final AtomicReference<byte[]> solution = new AtomicReference<>();
+    private volatile boolean halted;
+
+    // work not reported to the stats yet
+    private final AtomicLong expanded = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+
+    ParallelIDAStarSearch(Heuristic heuristic, double weight, int threads) {
+        this.heuristic = heuristic;
+        this.weight = weight;
+        this.threads = threads;
+        // about two children per board in the 15 puzzle
+        this.splitDepth = 32 - Integer.numberOfLeadingZeros(
+            SUBTREES_PER_THREAD * threads);
+    }
+
+    @Override
+    public byte[] solve(Board initial, SearchStats stats) {
+        stats.updateSuboptimality(weight);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            int estimate = heuristic.estimate(initial);
+            int bound = (int) (weight * estimate);
+            while (true) {
+                stats.updateBound(bound);
+                Subtree root = new Subtree(initial, new byte[0], estimate,
+                    null, bound);
+                pool.execute(root);
+                int next = await(root, stats);
+                if (stats.stopped()) {
+                    return null;
+                }
+                if (next == FOUND) {
+                    return solution.get();
+                }
+                bound = next;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // result of the iteration, reporting to the stats while it runs
+    private int await(Subtree root, SearchStats stats) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                int result = root.get(REPORT_INTERVAL, TimeUnit.MILLISECONDS);
+                report(stats);
+                return result;
+            } catch (TimeoutException e) {
+                // still running
+            } catch (InterruptedException e) {
+                // stopped by the stats below, once the flag is back
+                interrupted = true;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            report(stats);
+            if (stats.stopped()) {
+                halted = true;
+            }
+        }
+    }
+
+    private void report(SearchStats stats) {
+        stats.countWork(expanded.getAndSet(0), generated.getAndSet(0), 0);
+    }
+
+    private void found(byte[] path, int moves) {
+        solution.compareAndSet(null, Arrays.copyOf(path, moves));
+        halted = true;
+    }
+
+    // subtree below a board reached by the given moves, forked into
+    // smaller subtrees near the root and walked depth-first below
+    private class Subtree extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final byte[] path;
+        private final int estimate;
+        private final Move prev;
+        private final int bound;
+
+        private Subtree(Board board, byte[] path, int estimate, Move prev,
+                        int bound) {
+            this.board = board;
+            this.path = path;
+            this.estimate = estimate;
+            this.prev = prev;
+            this.bound = bound;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (path.length >= splitDepth) {
+                Walker walker = new Walker(board, path, bound);
+                int result = walker.search(path.length, estimate, prev);
+                walker.flush();
+                return result;
+            }
+
+            int priority = path.length + (int) (weight * estimate);
+            if (priority > bound) {
+                return priority;
+            }
+            if (board.isGoal()) {
+                found(path, path.length);
+                return FOUND;
+            }
+            if (halted) {
+                return Integer.MAX_VALUE;
+            }
+
+            expanded.incrementAndGet();
+            List<Subtree> children = new ArrayList<>(4);
+            for (Move move : Move.values()) {
+                if (prev != null && move == prev.opposite()
+                    || move.target(board.blank(), board.dimension()) < 0) {
+                    continue;
+                }
+
+                generated.incrementAndGet();
+                Board child = board.move(move);
+                byte[] childPath = Arrays.copyOf(path, path.length + 1);
+                childPath[path.length] = (byte) move.ordinal();
+                children.add(new Subtree(child, childPath, heuristic.update(
+                    child, estimate, child.blank(), board.blank()), move,
+                    bound));
+            }
+            invokeAll(children);
+
+            int min = Integer.MAX_VALUE;
+            for (Subtree child : children) {
+                int result = child.join();
+                if (result == FOUND) {
+                    return FOUND;
+                }
+                min = Math.min(min, result);
+            }
+
+            return min;
+        }
+    }
+
+    // depth-first walk of a subtree on a board of its own
+    private class Walker {
+
+        private final MutableBoard board;
+        private final int bound;
+        private byte[] path;
+        private long expandedDelta;
+        private long generatedDelta;
+
+        private Walker(Board root, byte[] prefix, int bound) {
+            this.board = new MutableBoard(root);
+            this.path = Arrays.copyOf(prefix, Math.max(32, 2 * prefix.length));
+            this.bound = bound;
+        }
+
+        // FOUND or the lowest priority above the bound met while searching
+        private int search(int moves, int estimate, Move prev) {
+            int priority = moves + (int) (weight * estimate);
+            if (priority > bound) {
+                return priority;
+            }
+
+            if (board.isGoal()) {
+                found(path, moves);
+                return FOUND;
+            }
+
+            if (halted) {
+                return Integer.MAX_VALUE;
+            }
+
+            if (moves == path.length) {
+                path = Arrays.copyOf(path, 2 * path.length);
+            }
+            if (++expandedDelta == FLUSH_INTERVAL) {
+                flush();
+            }
+
+            int min = Integer.MAX_VALUE;
+            int blank = board.blank();
+            int legal = board.legalMoves();
+            if (prev != null) {
+                // never undo the previous move
+                legal &= ~(1 << prev.opposite().ordinal());
+            }
+            for (; legal != 0; legal &= legal - 1) {
+                Move move = Move.of(Integer.numberOfTrailingZeros(legal));
+
+                generatedDelta++;
+                path[moves] = (byte) move.ordinal();
+                board.applyMove(move);
+                int result = search(moves + 1, heuristic.update(
+                    board, estimate, board.blank(), blank), move);
+                board.undoMove(move);
+
+                if (result == FOUND) {
+                    return FOUND;
+                }
+                min = Math.min(min, result);
+            }
+
+            return min;
+        }
+
+        private void flush() {
+            expanded.addAndGet(expandedDelta);
+            generated.addAndGet(generatedDelta);
+            expandedDelta = 0;
+            generatedDelta = 0;
+        }
+    }
+
+}
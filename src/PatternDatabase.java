@@ -0,0 +1,372 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Pattern database holding, for every placement of a group of blocks,
+ * the number of moves of those blocks needed to bring them home.
+ *
+ * Only moves of the group's own blocks are counted, so databases of
+ * disjoint groups can be added up into an admissible estimate. The blank
+ * moves for free among the other blocks but has to go around the group's,
+ * and each placement keeps its fewest moves over the blank positions.
+ *
+ * File format (big endian): magic, dimension, number of blocks,
+ * the blocks, followed by one distance byte per placement rank.
+ */
+public class PatternDatabase {
+
+    private static final int MAGIC = 0x50444232;
+    // databases built before the blank was taken into account
+    private static final int OUTDATED_MAGIC = 0x50444231;
+    private static final int MAX_CELLS = 64;
+    private static final byte UNKNOWN = (byte) 0xFF;
+
+    private final int dimension;
+    private final int[] blocks;
+    private final ByteBuffer table;
+
+    private PatternDatabase(int dimension, int[] blocks, ByteBuffer table) {
+        this.dimension = dimension;
+        this.blocks = blocks;
+        this.table = table;
+    }
+
+    /**
+     * Builds the database by a breadth first search backwards from the
+     * goal over the placements of the blocks and the region of cells the
+     * blank can reach without moving them
+     */
+    public static PatternDatabase build(int dimension, int... blocks) {
+        validate(dimension, blocks);
+
+        int cells = dimension * dimension;
+        int size = (int) tableSize(cells, blocks.length);
+        byte[] distances = new byte[size];
+        Arrays.fill(distances, UNKNOWN);
+        // one bit per placement and blank cell, set for the whole region
+        // of the blank once it is reached
+        long[] reached = new long[(int) (((long) size * cells + 63) >>> 6)];
+
+        int[] positions = new int[blocks.length];
+        for (int i = 0; i < blocks.length; i++) {
+            positions[i] = blocks[i] - 1;
+        }
+
+        long[] neighbors = neighbors(dimension);
+        Frontier current = new Frontier();
+        Frontier next = new Frontier();
+        int goal = rank(positions, cells);
+        distances[goal] = 0;
+        // the blank is home in the last cell
+        fill(positions, cells - 1, neighbors, reached, goal);
+        current.add(goal, cells - 1);
+
+        for (int distance = 0; current.size() > 0; distance++) {
+            if (distance == 254) {
+                throw new IllegalStateException(
+                    "pattern database distance does not fit in a byte");
+            }
+
+            for (int k = 0; k < current.size(); k++) {
+                int rank = current.rank(k);
+                unrank(rank, cells, positions);
+                long blanks = fill(positions, current.blank(k), neighbors,
+                    null, rank);
+
+                // a block next to the region takes the blank's place and
+                // leaves its own cell blank
+                for (int i = 0; i < positions.length; i++) {
+                    int from = positions[i];
+                    for (long moves = neighbors[from] & blanks; moves != 0;
+                         moves &= moves - 1) {
+                        positions[i] = Long.numberOfTrailingZeros(moves);
+                        int nextRank = rank(positions, cells);
+                        if (!isReached(reached, nextRank, from, cells)) {
+                            if (distances[nextRank] == UNKNOWN) {
+                                distances[nextRank] = (byte) (distance + 1);
+                            }
+                            fill(positions, from, neighbors, reached,
+                                nextRank);
+                            next.add(nextRank, from);
+                        }
+                    }
+                    positions[i] = from;
+                }
+            }
+
+            Frontier done = current;
+            current = next;
+            next = done;
+            next.clear();
+        }
+
+        return new PatternDatabase(
+            dimension, blocks.clone(), ByteBuffer.wrap(distances));
+    }
+
+    /**
+     * Maps a database file into memory without reading it on the heap
+     */
+    public static PatternDatabase load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(
+                FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            int magic = buffer.remaining() < 12 ? 0 : buffer.getInt();
+            if (magic == OUTDATED_MAGIC) {
+                throw new IOException(
+                    "outdated pattern database, delete it to rebuild: "
+                    + path);
+            }
+            if (magic != MAGIC) {
+                throw new IOException("not a pattern database: " + path);
+            }
+
+            int dimension = buffer.getInt();
+            int count = buffer.getInt();
+            if (count < 1 || buffer.remaining() < 4L * count) {
+                throw new IOException("corrupted pattern database: " + path);
+            }
+            int[] blocks = new int[count];
+            for (int i = 0; i < count; i++) {
+                blocks[i] = buffer.getInt();
+            }
+
+            try {
+                validate(dimension, blocks);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(
+                    "corrupted pattern database: " + path, e);
+            }
+            if (buffer.remaining() != tableSize(dimension * dimension, count)) {
+                throw new IOException("corrupted pattern database: " + path);
+            }
+
+            return new PatternDatabase(dimension, blocks, buffer.slice());
+        }
+    }
+
+    public void save(Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(12 + 4 * blocks.length);
+        header.putInt(MAGIC);
+        header.putInt(dimension);
+        header.putInt(blocks.length);
+        for (int block : blocks) {
+            header.putInt(block);
+        }
+        header.flip();
+
+        ByteBuffer distances = table.duplicate();
+        distances.clear();
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            while (distances.hasRemaining()) {
+                channel.write(distances);
+            }
+        }
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int[] blocks() {
+        return blocks.clone();
+    }
+
+    // moves of the blocks placed at the given positions, in block order
+    int distance(int[] positions) {
+        return table.get(rank(positions, dimension * dimension)) & 0xFF;
+    }
+
+    private static void validate(int dimension, int[] blocks) {
+        if (blocks == null) {
+            throw new NullPointerException("blocks are null");
+        }
+
+        int cells = dimension * dimension;
+        if (dimension < 2 || cells > MAX_CELLS) {
+            throw new IllegalArgumentException(
+                "pattern database dimension should be between 2 and 8 inclusive");
+        }
+
+        if (blocks.length == 0 || blocks.length >= cells) {
+            throw new IllegalArgumentException(
+                "pattern database needs between 1 and "
+                + (cells - 1) + " blocks");
+        }
+
+        long seen = 0;
+        for (int block : blocks) {
+            if (block < 1 || block >= cells || (seen & 1L << block) != 0) {
+                throw new IllegalArgumentException(
+                    "pattern database blocks should be distinct and "
+                    + "between 1 and " + (cells - 1));
+            }
+            seen |= 1L << block;
+        }
+
+        if (tableSize(cells, blocks.length) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                "pattern database has too many blocks");
+        }
+    }
+
+    // number of ways to place the blocks on the cells
+    private static long tableSize(int cells, int count) {
+        long size = 1;
+        for (int i = 0; i < count; i++) {
+            size *= cells - i;
+            if (size > Integer.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+        }
+
+        return size;
+    }
+
+    // mask of the cells the blank reaches from a cell without moving the
+    // blocks at the positions, marked as reached for the placement rank
+    // unless reached is null
+    private static long fill(int[] positions, int blank, long[] neighbors,
+                             long[] reached, int rank) {
+        long blocks = 0;
+        for (int position : positions) {
+            blocks |= 1L << position;
+        }
+
+        long region = 1L << blank;
+        long grown = region;
+        while (grown != 0) {
+            int cell = Long.numberOfTrailingZeros(grown);
+            grown &= grown - 1;
+            long added = neighbors[cell] & ~blocks & ~region;
+            region |= added;
+            grown |= added;
+        }
+
+        if (reached != null) {
+            for (long cells = region; cells != 0; cells &= cells - 1) {
+                long bit = (long) rank * neighbors.length
+                    + Long.numberOfTrailingZeros(cells);
+                reached[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+
+        return region;
+    }
+
+    private static boolean isReached(long[] reached, int rank, int cell,
+                                     int cells) {
+        long bit = (long) rank * cells + cell;
+        return (reached[(int) (bit >>> 6)] & 1L << bit) != 0;
+    }
+
+    // mask of the cells next to each cell
+    private static long[] neighbors(int dimension) {
+        long[] neighbors = new long[dimension * dimension];
+        for (int cell = 0; cell < neighbors.length; cell++) {
+            int row = cell / dimension;
+            int column = cell % dimension;
+            if (row > 0) {
+                neighbors[cell] |= 1L << (cell - dimension);
+            }
+            if (row < dimension - 1) {
+                neighbors[cell] |= 1L << (cell + dimension);
+            }
+            if (column > 0) {
+                neighbors[cell] |= 1L << (cell - 1);
+            }
+            if (column < dimension - 1) {
+                neighbors[cell] |= 1L << (cell + 1);
+            }
+        }
+
+        return neighbors;
+    }
+
+    // each position is numbered among the cells not taken by the
+    // previous blocks, giving a mixed radix number below the table size
+    private static int rank(int[] positions, int cells) {
+        int rank = 0;
+        for (int i = 0; i < positions.length; i++) {
+            int digit = positions[i];
+            for (int j = 0; j < i; j++) {
+                if (positions[j] < positions[i]) {
+                    digit--;
+                }
+            }
+            rank = rank * (cells - i) + digit;
+        }
+
+        return rank;
+    }
+
+    private static void unrank(int rank, int cells, int[] positions) {
+        for (int i = positions.length - 1; i >= 0; i--) {
+            positions[i] = rank % (cells - i);
+            rank /= cells - i;
+        }
+
+        long taken = 0;
+        for (int i = 0; i < positions.length; i++) {
+            // the digit-th cell not taken by the previous blocks
+            long free = ~taken;
+            for (int digit = positions[i]; digit > 0; digit--) {
+                free &= free - 1;
+            }
+            positions[i] = Long.numberOfTrailingZeros(free);
+            taken |= 1L << positions[i];
+        }
+    }
+
+    /**
+     * Placement ranks and blank cells reached at one distance, a blank
+     * cell standing for its whole region
+     */
+    private static class Frontier {
+
+        private int[] ranks = new int[1024];
+        private byte[] blanks = new byte[1024];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int rank(int k) {
+            return ranks[k];
+        }
+
+        int blank(int k) {
+            return blanks[k];
+        }
+
+        void add(int rank, int blank) {
+            if (size == ranks.length) {
+                ranks = Arrays.copyOf(ranks, 2 * size);
+                blanks = Arrays.copyOf(blanks, 2 * size);
+            }
+            ranks[size] = rank;
+            blanks[size] = (byte) blank;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Sum of disjoint pattern databases
+ */
+public class PatternDatabaseHeuristic implements Heuristic {
+
+    private final PatternDatabase[] databases;
+    private final int dimension;
+    private final int[] sizes;
+    // blocks of each database, in database order
+    private final int[][] groups;
+    // database covering each block (-1 for none) and the block's
+    // position in that database's group
+    private final int[] owner;
+    private final int[] slot;
+    // positions of each database's blocks on the last board each thread
+    // estimated or updated, as the heuristic may be shared by searches
+    private final ThreadLocal<int[][]> lastPositions =
+        new ThreadLocal<int[][]>() {
+            @Override
+            protected int[][] initialValue() {
+                int[][] positions = new int[databases.length][];
+                for (int i = 0; i < databases.length; i++) {
+                    positions[i] = new int[sizes[i]];
+                }
+                return positions;
+            }
+        };
+
+    public PatternDatabaseHeuristic(PatternDatabase... databases) {
+        if (databases == null) {
+            throw new NullPointerException("databases are null");
+        }
+
+        if (databases.length == 0) {
+            throw new IllegalArgumentException("databases are empty");
+        }
+
+        for (PatternDatabase database : databases) {
+            if (database == null) {
+                throw new NullPointerException("database is null");
+            }
+        }
+
+        this.databases = databases.clone();
+        this.dimension = databases[0].dimension();
+        this.owner = new int[dimension * dimension];
+        this.slot = new int[dimension * dimension];
+        this.sizes = new int[databases.length];
+        this.groups = new int[databases.length][];
+        Arrays.fill(owner, -1);
+
+        for (int i = 0; i < databases.length; i++) {
+            if (databases[i].dimension() != dimension) {
+                throw new IllegalArgumentException(
+                    "databases should have the same dimension");
+            }
+
+            int[] blocks = databases[i].blocks();
+            sizes[i] = blocks.length;
+            groups[i] = blocks;
+            for (int j = 0; j < blocks.length; j++) {
+                if (owner[blocks[j]] >= 0) {
+                    throw new IllegalArgumentException(
+                        "databases should cover disjoint blocks");
+                }
+                owner[blocks[j]] = i;
+                slot[blocks[j]] = j;
+            }
+        }
+    }
+
+    /**
+     * Loads the default partition for the dimension from the directory,
+     * building and saving the databases that are missing
+     */
+    public static PatternDatabaseHeuristic loadOrBuild(Path directory,
+                                                       int dimension)
+        throws IOException {
+
+        int[][] partition = defaultPartition(dimension);
+        PatternDatabase[] databases = new PatternDatabase[partition.length];
+        Files.createDirectories(directory);
+
+        for (int i = 0; i < partition.length; i++) {
+            Path path = directory.resolve(fileName(dimension, partition[i]));
+            if (!Files.exists(path)) {
+                PatternDatabase.build(dimension, partition[i]).save(path);
+            }
+            databases[i] = PatternDatabase.load(path);
+        }
+
+        return new PatternDatabaseHeuristic(databases);
+    }
+
+    // 4-4 for 3x3, 6-6-3 for 4x4 and 6-6-6-6 for 5x5, grouping
+    // blocks whose goal positions are close to each other
+    static int[][] defaultPartition(int dimension) {
+        switch (dimension) {
+            case 3:
+                return new int[][]{
+                    new int[]{1, 2, 4, 5},
+                    new int[]{3, 6, 7, 8}};
+            case 4:
+                return new int[][]{
+                    new int[]{1, 5, 6, 9, 10, 13},
+                    new int[]{7, 8, 11, 12, 14, 15},
+                    new int[]{2, 3, 4}};
+            case 5:
+                return new int[][]{
+                    new int[]{1, 2, 3, 6, 7, 8},
+                    new int[]{4, 5, 9, 10, 14, 15},
+                    new int[]{11, 12, 16, 17, 21, 22},
+                    new int[]{13, 18, 19, 20, 23, 24}};
+            default:
+                throw new IllegalArgumentException(
+                    "no default pattern databases for dimension " + dimension);
+        }
+    }
+
+    private static String fileName(int dimension, int[] blocks) {
+        StringBuilder sb = new StringBuilder("pdb-" + dimension);
+        for (int block : blocks) {
+            sb.append('-').append(block);
+        }
+
+        return sb.append(".bin").toString();
+    }
+
+    @Override
+    public int estimate(Blocks blocks) {
+        checkDimension(blocks);
+
+        int[][] positions = lastPositions.get();
+        for (int i = 0; i < dimension * dimension; i++) {
+            int block = blocks.block(i);
+            if (block != 0 && owner[block] >= 0) {
+                positions[owner[block]][slot[block]] = i;
+            }
+        }
+
+        int estimate = 0;
+        for (int i = 0; i < databases.length; i++) {
+            estimate += databases[i].distance(positions[i]);
+        }
+
+        return estimate;
+    }
+
+    @Override
+    public int update(Blocks blocks, int estimate, int from, int to) {
+        checkDimension(blocks);
+
+        int moved = blocks.block(to);
+        int database = owner[moved];
+        if (database < 0) {
+            return estimate;
+        }
+
+        // only the database of the moved block changes; the positions
+        // left by the previous call are usually those of the parent board
+        int[] positions = lastPositions.get()[database];
+        if (!holdsOtherBlocks(blocks, database, positions, moved)) {
+            for (int i = 0; i < dimension * dimension; i++) {
+                int block = blocks.block(i);
+                if (block != 0 && owner[block] == database) {
+                    positions[slot[block]] = i;
+                }
+            }
+        }
+
+        positions[slot[moved]] = from;
+        int before = databases[database].distance(positions);
+        positions[slot[moved]] = to;
+        int after = databases[database].distance(positions);
+
+        return estimate - before + after;
+    }
+
+    // whether the board has every block of the database but the moved one
+    // at the given positions
+    private boolean holdsOtherBlocks(Blocks blocks, int database,
+                                     int[] positions, int moved) {
+        int[] group = groups[database];
+        for (int i = 0; i < group.length; i++) {
+            if (group[i] != moved && blocks.block(positions[i]) != group[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void checkDimension(Blocks blocks) {
+        if (blocks.dimension() != dimension) {
+            throw new IllegalArgumentException(
+                "board dimension should be " + dimension);
+        }
+    }
+
+}
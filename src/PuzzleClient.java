@@ -2,10 +2,17 @@ import com.beust.jcommander.IParameterValidator;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 import javax.swing.SwingUtilities;
 
 public class PuzzleClient {
@@ -33,6 +40,144 @@ public class PuzzleClient {
         description = "Run GUI Visualizer")
     private boolean gui = false;
 
+    @Parameter(
+        names = {"--pdb"},
+        description = "Use pattern databases from this directory as the "
+            + "heuristic, building missing ones (3x3 to 5x5 boards)")
+    private String pdbDirectory;
+
+    @Parameter(
+        names = {"--table"},
+        description = "Answer 3x3 boards from the distance table in this "
+            + "file, building it if missing")
+    private String tableFile;
+
+    @Parameter(
+        names = {"--batch", "-b"},
+        description = "Solve every puzzle from this file (- for stdin), "
+            + "one line of results per puzzle")
+    private String batchFile;
+
+    @Parameter(
+        names = {"--threads", "-t"},
+        description = "Worker threads in batch mode",
+        validateWith = PositiveValidator.class)
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    @Parameter(
+        names = {"--max-in-flight"},
+        description = "Puzzles read ahead but not printed yet in batch mode "
+            + "(default 4 per thread)",
+        validateWith = PositiveValidator.class)
+    private int maxInFlight;
+
+    @Parameter(
+        names = {"--ordered"},
+        description = "Print batch results in input order")
+    private boolean ordered = false;
+
+    @Parameter(
+        names = {"--weight", "-w"},
+        description = "Weight of the heuristic, trading solution length "
+            + "(at most weight times the optimal) for speed",
+        validateWith = WeightValidator.class)
+    private double weight = 1;
+
+    @Parameter(
+        names = {"--ida"},
+        description = "Search depth-first with iterative deepening, using "
+            + "memory proportional to the solution length")
+    private boolean ida = false;
+
+    @Parameter(
+        names = {"--bidirectional"},
+        description = "Search forward from the puzzle and backward from the "
+            + "goal at once, meeting in the middle")
+    private boolean bidirectional = false;
+
+    @Parameter(
+        names = {"--search-threads"},
+        description = "Threads sharing each search: A* threads own part of "
+            + "the boards, --ida threads walk separate subtrees (solutions "
+            + "stay the shortest)",
+        validateWith = PositiveValidator.class)
+    private int searchThreads = 1;
+
+    @Parameter(
+        names = {"--off-heap"},
+        description = "Megabytes of memory outside the heap for the boards "
+            + "an A* search reached (boards up to 4x4), the rest being "
+            + "spilled to disk",
+        validateWith = PositiveValidator.class)
+    private int offHeap;
+
+    @Parameter(
+        names = {"--spill-dir"},
+        description = "Directory of the files --off-heap spills to, the "
+            + "temporary directory by default")
+    private String spillDirectory;
+
+    @Parameter(
+        names = {"--anytime"},
+        description = "Find a first solution with the given --weight, then "
+            + "keep shortening it for this many milliseconds",
+        validateWith = PositiveValidator.class)
+    private int anytime;
+
+    @Parameter(
+        names = {"--constructive", "-c"},
+        description = "Place the blocks row by row and column by column, "
+            + "printing the moves as they are made (boards of any size, "
+            + "solutions far from the shortest)")
+    private boolean constructive = false;
+
+    @Parameter(
+        names = {"--cache"},
+        description = "File keeping the solutions found, reused for boards "
+            + "solved before")
+    private String cacheFile;
+
+    @Parameter(
+        names = {"--cache-size"},
+        description = "Number of cached solutions kept in memory",
+        validateWith = PositiveValidator.class)
+    private int cacheSize = 100000;
+
+    private SolutionCache cache;
+
+    @Parameter(
+        names = {"--serve"},
+        description = "Answer puzzles sent to this loopback port, one line "
+            + "of results per puzzle, until killed",
+        validateWith = PortValidator.class)
+    private int servePort = -1;
+
+    @Parameter(
+        names = {"--max-connections"},
+        description = "Clients served at once in server mode, further ones "
+            + "being turned away",
+        validateWith = PositiveValidator.class)
+    private int maxConnections = 64;
+
+    @Parameter(
+        names = {"--deadline"},
+        description = "Milliseconds allowed per puzzle in server mode, "
+            + "including the time waiting for a worker thread",
+        validateWith = PositiveValidator.class)
+    private int deadline;
+
+    @Parameter(
+        names = {"--node-budget"},
+        description = "Boards expanded at most per search, bounding the "
+            + "memory a puzzle can take",
+        validateWith = PositiveValidator.class)
+    private int nodeBudget;
+
+    @Parameter(
+        names = {"--stats"},
+        description = "Report search progress and statistics on stderr")
+    private boolean stats = false;
+
     public static class SizeValidator implements IParameterValidator {
         @Override
         public void validate(String name, String value) throws ParameterException {
@@ -49,6 +194,53 @@ public class PuzzleClient {
         }
     }
 
+    public static class PositiveValidator implements IParameterValidator {
+        @Override
+        public void validate(String name, String value) throws ParameterException {
+            String msg = "Parameter " + name + " should be a positive integer "
+                + "(found " + value + ")";
+            try {
+                if (Integer.parseInt(value) < 1) {
+                    throw new ParameterException(msg);
+                }
+            } catch (NumberFormatException e) {
+                throw new ParameterException(msg);
+            }
+        }
+    }
+
+    public static class PortValidator implements IParameterValidator {
+        @Override
+        public void validate(String name, String value) throws ParameterException {
+            String msg = "Parameter " + name + " should be a port number "
+                + "between 0 and 65535 (found " + value + ")";
+            try {
+                int port = Integer.parseInt(value);
+                if (port < 0 || port > 65535) {
+                    throw new ParameterException(msg);
+                }
+            } catch (NumberFormatException e) {
+                throw new ParameterException(msg);
+            }
+        }
+    }
+
+    public static class WeightValidator implements IParameterValidator {
+        @Override
+        public void validate(String name, String value) throws ParameterException {
+            String msg = "Parameter " + name + " should be a number not less "
+                + "than 1 (found " + value + ")";
+            try {
+                double weight = Double.parseDouble(value);
+                if (!(weight >= 1) || Double.isInfinite(weight)) {
+                    throw new ParameterException(msg);
+                }
+            } catch (NumberFormatException e) {
+                throw new ParameterException(msg);
+            }
+        }
+    }
+
     public static void main(String[] args) {
         PuzzleClient client = new PuzzleClient();
         JCommander jc = new JCommander(client);
@@ -63,6 +255,9 @@ public class PuzzleClient {
             client.run();
         } catch (ParameterException e) {
             System.out.println(e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Cannot open solution cache: "
+                + e.getMessage());
         }
     }
 
@@ -71,30 +266,141 @@ public class PuzzleClient {
             throw new ParameterException(
                 "Parameters --stdin and --size are mutually exclusive");
         }
+        if (constructive && anytime > 0) {
+            throw new ParameterException("Parameters --constructive and "
+                + "--anytime are mutually exclusive");
+        }
+        if (ida && (constructive || anytime > 0)) {
+            throw new ParameterException("Parameter --ida cannot be used "
+                + "with --constructive or --anytime");
+        }
+        if (bidirectional && (ida || constructive || anytime > 0)) {
+            throw new ParameterException("Parameter --bidirectional cannot "
+                + "be used with --ida, --constructive or --anytime");
+        }
+        if (bidirectional && weight != 1) {
+            throw new ParameterException(
+                "Parameter --weight cannot be used with --bidirectional");
+        }
+        if (searchThreads > 1 && (bidirectional || constructive
+                || anytime > 0)) {
+            throw new ParameterException("Parameter --search-threads cannot "
+                + "be used with --bidirectional, --constructive or --anytime");
+        }
+        if (offHeap > 0 && (ida || bidirectional || constructive
+                || anytime > 0 || searchThreads > 1)) {
+            throw new ParameterException("Parameter --off-heap cannot be "
+                + "used with --ida, --bidirectional, --constructive, "
+                + "--anytime or --search-threads");
+        }
+        if (spillDirectory != null && offHeap == 0) {
+            throw new ParameterException(
+                "Parameter --spill-dir requires --off-heap");
+        }
+        if (batchFile != null && (stdin || size > 0 || gui)) {
+            throw new ParameterException("Parameter --batch cannot be used "
+                + "with --stdin, --size or --gui");
+        }
+        if (servePort >= 0 && (batchFile != null || stdin || size > 0
+                || gui)) {
+            throw new ParameterException("Parameter --serve cannot be used "
+                + "with --batch, --stdin, --size or --gui");
+        }
+    }
+
+    private void run() throws IOException {
+        if (cacheFile != null) {
+            cache = SolutionCache.open(Paths.get(cacheFile), cacheSize);
+        }
+        if (servePort >= 0) {
+            runServer();
+        } else if (batchFile != null) {
+            runBatch();
+        } else {
+            runSingle();
+        }
+        if (cache != null && !gui) {
+            if (stats) {
+                System.err.println(String.format("cache hits=%d misses=%d",
+                    cache.hits(), cache.misses()));
+            }
+            cache.close();
+        }
     }
 
-    private void run() {
+    private void runSingle() {
         final Board initial;
         if (stdin) {
-            initial = new Board(loadBoardFromStdIn());
+            try {
+                initial = loadBoardFromStdIn();
+            } catch (IOException e) {
+                System.out.println("Invalid puzzle: " + e.getMessage());
+                return;
+            }
+            if (initial == null) {
+                System.out.println("Invalid puzzle: the input is empty");
+                return;
+            }
         } else {
             initial = new Board(loadBoardFromRandom());
         }
 
+        final SolverOptions options;
+        try {
+            options = makeOptions(initial.dimension());
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Cannot load search tables: "
+                + e.getMessage());
+            return;
+        }
+
         if (gui) {
             SwingUtilities.invokeLater(new Runnable() {
                 public void run() {
-                    new Visualizer(initial);
+                    new Visualizer(initial, options);
                 }
             });
         } else {
-            Solver solver = new Solver(initial);
-            if (!solver.isSolvable()) {
+            if (stats) {
+                options.listener(new SearchListener() {
+                    public void progress(SearchStats stats) {
+                        System.err.println(String.format(
+                            "bound=%d frontier=%d %s", stats.bound(),
+                            stats.frontierSize(), stats));
+                    }
+
+                    public void improved(SearchStats stats, String moves) {
+                        System.err.println(String.format(
+                            "moves=%d suboptimality=%.2f %s", moves.length(),
+                            stats.suboptimality(), stats));
+                    }
+
+                    public void finished(SearchStats stats) {
+                        System.err.println(stats);
+                    }
+                });
+            }
+            if (constructive) {
+                runConstructive(initial, options);
+                return;
+            }
+            Solver solver = new Solver(initial, options);
+            if (solver.status() == Solver.Status.UNSOLVABLE) {
                 System.out.println("Puzzle is unsolvable");
                 System.out.println(initial + "\n");
+            } else if (!solver.isSolvable()) {
+                System.out.println(stopInfo(solver.status()));
+                System.out.println(initial + "\n");
             } else {
-                System.out.println("Minimum number of moves: "
-                    + solver.moves() + "\n");
+                double suboptimality = solver.stats().suboptimality();
+                if (suboptimality > 1) {
+                    System.out.println(String.format("Number of moves: %d "
+                        + "(at most %.2f times the minimum)\n",
+                        solver.moves(), suboptimality));
+                } else {
+                    System.out.println("Minimum number of moves: "
+                        + solver.moves() + "\n");
+                }
                 for (Board board : solver.solution()) {
                     System.out.println(board);
                 }
@@ -103,19 +409,148 @@ public class PuzzleClient {
 
     }
 
-    private int[][] loadBoardFromStdIn() {
-        int[][] blocks;
-        try (Scanner scanner = new Scanner(System.in)) {
-            int dim = scanner.nextInt();
-            blocks = new int[dim][dim];
-            for (int i = 0; i < dim; i++) {
-                for (int j = 0; j < dim; j++) {
-                    blocks[i][j] = scanner.nextInt();
+    private void runConstructive(Board initial, SolverOptions options) {
+        final Writer out = new BufferedWriter(
+            new OutputStreamWriter(System.out));
+        options.moveListener(new MoveListener() {
+            public void moved(Move move) {
+                try {
+                    out.write(move.letter());
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
                 }
             }
+        });
+
+        try {
+            if (initial.isSolvable()) {
+                out.write("Moves: ");
+            }
+            Solver solver = new Solver(initial, options);
+            if (solver.status() == Solver.Status.UNSOLVABLE) {
+                out.write("Puzzle is unsolvable\n" + initial + "\n\n");
+            } else if (!solver.isSolvable()) {
+                out.write("\n" + stopInfo(solver.status()) + "\n");
+            } else {
+                out.write("\nNumber of moves: " + solver.moves() + "\n");
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Cannot write moves: " + e.getMessage());
         }
+    }
 
-        return blocks;
+    // why a search of a solvable board gave up without a solution
+    private String stopInfo(Solver.Status status) {
+        switch (status) {
+            case OUT_OF_BUDGET:
+                return "Search gave up after expanding " + nodeBudget
+                    + " boards (--node-budget)";
+            case TIMED_OUT:
+                return "Search gave up when its deadline expired";
+            case CANCELLED:
+                return "Search was cancelled";
+            default:
+                throw new IllegalArgumentException(
+                    "status " + status + " is not a stop");
+        }
+    }
+
+    private void runBatch() {
+        int inFlight = maxInFlight > 0 ? maxInFlight : 4 * threads;
+        BatchSolver batch =
+            new BatchSolver(threads, inFlight, ordered, System.out);
+        Map<Integer, SolverOptions> options = new HashMap<>();
+        int count = 0;
+
+        try (PuzzleReader reader = batchFile.equals("-")
+                ? new PuzzleReader(Channels.newChannel(System.in))
+                : PuzzleReader.open(Paths.get(batchFile))) {
+            Board board;
+            while ((board = reader.next()) != null) {
+                count++;
+                if (!options.containsKey(board.dimension())) {
+                    try {
+                        options.put(board.dimension(),
+                                    makeOptions(board.dimension()));
+                    } catch (IOException | IllegalArgumentException e) {
+                        System.out.println("Cannot load search tables: "
+                            + e.getMessage());
+                        break;
+                    }
+                }
+                batch.submit(board, options.get(board.dimension()));
+            }
+        } catch (PuzzleFormatException e) {
+            System.out.println("Invalid puzzle #" + (count + 1)
+                + " in batch input: " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Cannot read batch input: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            batch.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runServer() {
+        try (SolverServer server = new SolverServer(servePort, threads,
+                maxConnections, deadline, new SolverServer.OptionsFactory() {
+                    @Override
+                    public SolverOptions options(int dimension)
+                        throws IOException {
+                        return makeOptions(dimension);
+                    }
+                })) {
+            System.out.println("Listening on port " + server.port());
+            server.run();
+        } catch (IOException e) {
+            System.out.println("Cannot listen on port " + servePort + ": "
+                + e.getMessage());
+        }
+    }
+
+    private SolverOptions makeOptions(int dimension) throws IOException {
+        SolverOptions options = new SolverOptions()
+            .weight(weight)
+            .nodeBudget(nodeBudget)
+            .threads(searchThreads)
+            .offHeapMemory((long) offHeap << 20)
+            .cache(cache);
+        if (spillDirectory != null) {
+            options.spillDirectory(Paths.get(spillDirectory));
+        }
+        if (constructive) {
+            options.algorithm(SolverOptions.Algorithm.CONSTRUCTIVE);
+        } else if (anytime > 0) {
+            options.algorithm(SolverOptions.Algorithm.ANYTIME)
+                .timeLimit(anytime);
+        } else if (ida) {
+            options.algorithm(SolverOptions.Algorithm.IDA_STAR);
+        } else if (bidirectional) {
+            options.algorithm(SolverOptions.Algorithm.BIDIRECTIONAL);
+        }
+        if (pdbDirectory != null) {
+            options.heuristic(PatternDatabaseHeuristic.loadOrBuild(
+                Paths.get(pdbDirectory), dimension));
+        }
+        if (tableFile != null && dimension == 3) {
+            options.table(EightPuzzleTable.loadOrBuild(Paths.get(tableFile)));
+        }
+
+        return options;
+    }
+
+    // null when the input holds no puzzle
+    private Board loadBoardFromStdIn() throws IOException {
+        try (PuzzleReader reader =
+                 new PuzzleReader(Channels.newChannel(System.in))) {
+            return reader.next();
+        }
     }
 
     private int[][] loadBoardFromRandom() {
@@ -0,0 +1,28 @@
+import java.io.IOException;
+
+/**
+ * Malformed puzzle input, with the line and column (in bytes, both
+ * counted from 1) where the problem was found
+ */
+public class PuzzleFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long line;
+    private final long column;
+
+    public PuzzleFormatException(String message, long line, long column) {
+        super("line " + line + ", column " + column + ": " + message);
+        this.line = line;
+        this.column = column;
+    }
+
+    public long line() {
+        return line;
+    }
+
+    public long column() {
+        return column;
+    }
+
+}
@@ -0,0 +1,174 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads puzzles in the standard input format (board size first, followed
+ * by block rows) one after another, decoding the bytes of the input
+ * straight into boards
+ */
+public class PuzzleReader implements Closeable {
+
+    private static final int STREAM_BUFFER = 1 << 16;
+    // large sequential reads keep up with the disk
+    private static final int FILE_BUFFER = 1 << 20;
+    private static final int MAX_DIMENSION = 127;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private int position;
+    private int limit;
+    // bytes read before the buffer contents
+    private long consumed;
+    private boolean ended;
+
+    private long line = 1;
+    // offset of the first byte of the line
+    private long lineStart;
+    // position of the last number read
+    private long numberLine;
+    private long numberColumn;
+
+    // puzzle in which each block was last seen
+    private final int[] seen = new int[MAX_DIMENSION * MAX_DIMENSION];
+    private int puzzles;
+
+    public PuzzleReader(ReadableByteChannel channel) {
+        this(channel, STREAM_BUFFER);
+    }
+
+    private PuzzleReader(ReadableByteChannel channel, int bufferSize) {
+        if (channel == null) {
+            throw new NullPointerException("channel is null");
+        }
+
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.bytes = buffer.array();
+    }
+
+    public static PuzzleReader open(Path file) throws IOException {
+        return new PuzzleReader(
+            FileChannel.open(file, StandardOpenOption.READ), FILE_BUFFER);
+    }
+
+    /**
+     * Next puzzle of the input, or null at its end
+     */
+    public Board next() throws IOException {
+        int dimension = nextNumber();
+        if (dimension < 0) {
+            return null;
+        }
+        if (dimension < 2 || dimension > MAX_DIMENSION) {
+            throw error("board size should be between 2 and "
+                + MAX_DIMENSION + " (found " + dimension + ")");
+        }
+
+        puzzles++;
+        int size = dimension * dimension;
+        char[] blocks = new char[size];
+        for (int i = 0; i < size; i++) {
+            int block = nextNumber();
+            if (block < 0) {
+                throw new PuzzleFormatException(
+                    "input ends in the middle of a board", line,
+                    consumed + position - lineStart + 1);
+            }
+            if (block >= size) {
+                throw error("block " + block + " does not fit a board of size "
+                    + dimension);
+            }
+            if (seen[block] == puzzles) {
+                throw error("block " + block + " is repeated");
+            }
+            seen[block] = puzzles;
+            blocks[i] = (char) block;
+        }
+
+        return new Board(dimension, blocks);
+    }
+
+    // next number, or -1 at the end of the input
+    private int nextNumber() throws IOException {
+        int c = nextByte();
+        while (isSpace(c)) {
+            c = nextByte();
+        }
+        if (c < 0) {
+            return -1;
+        }
+
+        numberLine = line;
+        numberColumn = consumed + position - lineStart;
+        if (c < '0' || c > '9') {
+            throw error("unexpected character '" + (char) c + "'");
+        }
+        int value = c - '0';
+        for (c = nextByte(); c >= '0' && c <= '9'; c = nextByte()) {
+            value = 10 * value + c - '0';
+            if (value > Character.MAX_VALUE) {
+                throw error("number is too large");
+            }
+        }
+        if (c >= 0 && !isSpace(c)) {
+            numberColumn = consumed + position - lineStart;
+            throw error("unexpected character '" + (char) c + "'");
+        }
+
+        return value;
+    }
+
+    // whether c separates numbers, counting lines
+    private boolean isSpace(int c) {
+        if (c == '\n') {
+            line++;
+            lineStart = consumed + position;
+            return true;
+        }
+
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+
+    // next byte, or -1 at the end of the input
+    private int nextByte() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+
+        return bytes[position++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (ended) {
+            return false;
+        }
+
+        consumed += limit;
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+        } while (read == 0);
+        position = 0;
+        limit = Math.max(read, 0);
+        ended = read < 0;
+
+        return !ended;
+    }
+
+    private PuzzleFormatException error(String message) {
+        return new PuzzleFormatException(message, numberLine, numberColumn);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
@@ -0,0 +1,10 @@
+/**
+ * Search algorithm run by the Solver on a solvable board
+ */
+interface SearchEngine {
+
+    // ordinals of the moves from the initial board to the goal, or null
+    // when interrupted, counting the work done in stats
+    byte[] solve(Board initial, SearchStats stats);
+
+}
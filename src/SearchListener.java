@@ -0,0 +1,17 @@
+/**
+ * Callbacks from a running search, made on the searching thread
+ */
+public interface SearchListener {
+
+    // called at most once per progress interval while searching
+    void progress(SearchStats stats);
+
+    // called by anytime searches each time they find a shorter solution,
+    // with stats.suboptimality() bounding its length over the optimal one
+    void improved(SearchStats stats, String moveSequence);
+
+    // called once the search has found a solution, given up or was
+    // interrupted, with the final statistics
+    void finished(SearchStats stats);
+
+}
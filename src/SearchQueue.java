@@ -0,0 +1,12 @@
+/**
+ * Min priority queue holding the search frontier
+ */
+public interface SearchQueue<T> {
+
+    int size();
+
+    void add(T item);
+
+    T poll();
+
+}
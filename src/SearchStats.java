@@ -0,0 +1,243 @@
+/**
+ * Work done by a search, updated while it runs
+ */
+public class SearchStats {
+
+    // expansions between two reads of the clock or of the token
+    private static final int PROGRESS_CHECK = 1024;
+
+    private final SearchListener listener;
+    private final long progressInterval;
+    private final CancellationToken token;
+    private final long nodeBudget;
+    // why the search gave up, or null while it may go on
+    private Solver.Status stopReason;
+
+    private long startTime;
+    private long endTime;
+    private long nextProgress;
+
+    private long expanded;
+    private long generated;
+    private long duplicates;
+    private int frontierSize;
+    private int peakFrontierSize;
+    private int bound;
+    private double suboptimality = 1;
+    // closed set kept off the heap, if any
+    private long closedSetSize;
+    private double closedSetLoad;
+    private double averageProbes;
+    private int maxProbes;
+    private long spilledBytes;
+
+    SearchStats(SearchListener listener, long progressIntervalMillis) {
+        this(listener, progressIntervalMillis, null, 0);
+    }
+
+    SearchStats(SearchListener listener, long progressIntervalMillis,
+                CancellationToken token, long nodeBudget) {
+        this.listener = listener;
+        this.progressInterval = progressIntervalMillis * 1000000L;
+        this.token = token;
+        this.nodeBudget = nodeBudget;
+    }
+
+    // nodes whose neighbors were generated
+    public long expanded() {
+        return expanded;
+    }
+
+    public long generated() {
+        return generated;
+    }
+
+    // generated nodes dropped because their board was already reached
+    // with the same or fewer moves
+    public long duplicates() {
+        return duplicates;
+    }
+
+    // nodes waiting to be expanded (the current depth for depth-first
+    // searches)
+    public int frontierSize() {
+        return frontierSize;
+    }
+
+    public int peakFrontierSize() {
+        return peakFrontierSize;
+    }
+
+    // priority of the latest expanded node (the current threshold for
+    // iterative deepening)
+    public int bound() {
+        return bound;
+    }
+
+    // factor by which the solution may be longer than an optimal one
+    public double suboptimality() {
+        return suboptimality;
+    }
+
+    // boards in the closed set, for searches keeping it off the heap
+    public long closedSetSize() {
+        return closedSetSize;
+    }
+
+    // fraction of the closed set slots in use
+    public double closedSetLoad() {
+        return closedSetLoad;
+    }
+
+    // closed set slots read per lookup, on average and at most
+    public double averageProbes() {
+        return averageProbes;
+    }
+
+    public int maxProbes() {
+        return maxProbes;
+    }
+
+    // bytes of the closed set spilled to disk, once off-heap memory ran out
+    public long spilledBytes() {
+        return spilledBytes;
+    }
+
+    public long elapsedNanos() {
+        if (startTime == 0) {
+            return 0;
+        } else if (endTime == 0) {
+            return System.nanoTime() - startTime;
+        } else {
+            return endTime - startTime;
+        }
+    }
+
+    public double nodesPerSecond() {
+        long elapsed = elapsedNanos();
+        return elapsed == 0 ? 0 : expanded * 1e9 / elapsed;
+    }
+
+    void started() {
+        startTime = System.nanoTime();
+        nextProgress = startTime + progressInterval;
+    }
+
+    void finished() {
+        endTime = System.nanoTime();
+        if (listener != null) {
+            listener.finished(this);
+        }
+    }
+
+    void updateSuboptimality(double suboptimality) {
+        this.suboptimality = suboptimality;
+    }
+
+    void improved(byte[] moves, double suboptimality) {
+        this.suboptimality = suboptimality;
+        if (listener != null) {
+            listener.improved(this, Move.sequence(moves));
+        }
+    }
+
+    void countExpanded() {
+        expanded++;
+        if (expanded == nodeBudget) {
+            stopReason = Solver.Status.OUT_OF_BUDGET;
+        }
+        if (expanded % PROGRESS_CHECK == 0) {
+            checkStop();
+            reportProgress();
+        }
+    }
+
+    // work done by the threads of a parallel search since the last call,
+    // added by the thread that started the search
+    void countWork(long expanded, long generated, long duplicates) {
+        this.expanded += expanded;
+        this.generated += generated;
+        this.duplicates += duplicates;
+        if (nodeBudget > 0 && this.expanded >= nodeBudget
+            && stopReason == null) {
+            stopReason = Solver.Status.OUT_OF_BUDGET;
+        }
+        checkStop();
+        reportProgress();
+    }
+
+    private void reportProgress() {
+        if (listener != null) {
+            long now = System.nanoTime();
+            if (now - nextProgress >= 0) {
+                nextProgress = now + progressInterval;
+                listener.progress(this);
+            }
+        }
+    }
+
+    // whether the search should give up and return null, checked by
+    // engines at least once per expansion
+    boolean stopped() {
+        return stopReason != null;
+    }
+
+    Solver.Status stopReason() {
+        return stopReason;
+    }
+
+    void checkStop() {
+        if (stopReason != null) {
+            return;
+        }
+
+        if (Thread.currentThread().isInterrupted()
+            || token != null && token.isCancelled()) {
+            stopReason = Solver.Status.CANCELLED;
+        } else if (token != null && token.isExpired()) {
+            stopReason = Solver.Status.TIMED_OUT;
+        }
+    }
+
+    void countGenerated() {
+        generated++;
+    }
+
+    void countDuplicate() {
+        duplicates++;
+    }
+
+    void updateFrontier(int size) {
+        frontierSize = size;
+        peakFrontierSize = Math.max(peakFrontierSize, size);
+    }
+
+    void updateBound(int bound) {
+        this.bound = bound;
+    }
+
+    void updateClosedSet(long size, double load, double averageProbes,
+                         int maxProbes, long spilledBytes) {
+        this.closedSetSize = size;
+        this.closedSetLoad = load;
+        this.averageProbes = averageProbes;
+        this.maxProbes = maxProbes;
+        this.spilledBytes = spilledBytes;
+    }
+
+    @Override
+    public String toString() {
+        String stats = String.format("expanded=%d generated=%d duplicates=%d "
+            + "peakFrontier=%d time=%.3fms nodes/s=%.0f",
+            expanded, generated, duplicates, peakFrontierSize,
+            elapsedNanos() / 1e6, nodesPerSecond());
+        if (closedSetSize == 0) {
+            return stats;
+        }
+
+        return stats + String.format(" closed=%d load=%.2f probes=%.2f/%d "
+            + "spilled=%dMB", closedSetSize, closedSetLoad, averageProbes,
+            maxProbes, spilledBytes >> 20);
+    }
+
+}
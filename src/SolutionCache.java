@@ -0,0 +1,222 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Solutions of recently solved boards, evicting the least recently used
+ * ones, optionally backed by an append-only file reloaded on open
+ */
+public class SolutionCache implements Closeable {
+
+    private static final int MAGIC = 0x534F4C31;
+    private static final int MOVE_COUNT = Move.values().length;
+
+    private final Map<String, Solution> entries;
+    private DataOutputStream store;
+
+    private long hits;
+    private long misses;
+
+    static class Solution {
+
+        // ordinals of the moves taken by the blank
+        private final byte[] moves;
+        private final double suboptimality;
+
+        private Solution(byte[] moves, double suboptimality) {
+            this.moves = moves;
+            this.suboptimality = suboptimality;
+        }
+
+        byte[] moves() {
+            return moves;
+        }
+
+        double suboptimality() {
+            return suboptimality;
+        }
+    }
+
+    public SolutionCache(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity should be positive");
+        }
+
+        entries = new LinkedHashMap<String, Solution>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<String, Solution> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Cache keeping at most capacity solutions in memory, loading the
+     * latest ones from the file and appending new ones to it
+     */
+    public static SolutionCache open(Path file, int capacity)
+        throws IOException {
+
+        SolutionCache cache = new SolutionCache(capacity);
+        if (Files.exists(file) && Files.size(file) > 0) {
+            long valid = cache.load(ByteBuffer.wrap(Files.readAllBytes(file)));
+            if (valid < Files.size(file)) {
+                // drop a record cut short by a crash while appending
+                try (FileChannel channel = FileChannel.open(
+                        file, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                }
+            }
+        }
+
+        boolean empty = !Files.exists(file) || Files.size(file) == 0;
+        cache.store = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)));
+        if (empty) {
+            cache.store.writeInt(MAGIC);
+            cache.store.flush();
+        }
+
+        return cache;
+    }
+
+    // length of the complete records read; a record declaring more bytes
+    // than are left or holding moves that do not exist ends them, as one
+    // cut short does
+    private long load(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 4 || buffer.getInt() != MAGIC) {
+            throw new IOException("not a solution cache file");
+        }
+
+        int valid = buffer.position();
+        try {
+            while (buffer.hasRemaining()) {
+                int keyLength = buffer.getInt();
+                if (keyLength < 0 || keyLength > buffer.remaining() / 2) {
+                    return valid;
+                }
+                char[] key = new char[keyLength];
+                for (int i = 0; i < key.length; i++) {
+                    key[i] = buffer.getChar();
+                }
+                double suboptimality = buffer.getDouble();
+                int count = buffer.getInt();
+                if (count < 0 || count > buffer.remaining()) {
+                    return valid;
+                }
+                byte[] moves = new byte[count];
+                buffer.get(moves);
+                if (!isValid(moves)) {
+                    return valid;
+                }
+                String board = new String(key);
+                if (isBetter(entries.get(board), moves, suboptimality)) {
+                    entries.put(board, new Solution(moves, suboptimality));
+                }
+                valid = buffer.position();
+            }
+        } catch (BufferUnderflowException e) {
+            return valid;
+        }
+
+        return valid;
+    }
+
+    private static boolean isValid(byte[] moves) {
+        for (byte move : moves) {
+            if (move < 0 || move >= MOVE_COUNT) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // canonical encoding of a board: its dimension, then its blocks
+    static String key(Board board) {
+        int dimension = board.dimension();
+        char[] key = new char[dimension * dimension + 1];
+        key[0] = (char) dimension;
+        for (int i = 1; i < key.length; i++) {
+            key[i] = (char) board.block(i - 1);
+        }
+
+        return new String(key);
+    }
+
+    // solution of the board at most maxSuboptimality times longer than
+    // the optimal one, or null
+    synchronized Solution get(Board board, double maxSuboptimality) {
+        Solution solution = entries.get(key(board));
+        if (solution != null && solution.suboptimality <= maxSuboptimality) {
+            hits++;
+            return solution;
+        }
+
+        misses++;
+        return null;
+    }
+
+    // keeps the solution unless a better one is known
+    synchronized void put(Board board, byte[] moves, double suboptimality) {
+        String key = key(board);
+        if (!isBetter(entries.get(key), moves, suboptimality)) {
+            return;
+        }
+
+        entries.put(key, new Solution(moves, suboptimality));
+        if (store != null) {
+            try {
+                store.writeInt(key.length());
+                store.writeChars(key);
+                store.writeDouble(suboptimality);
+                store.writeInt(moves.length);
+                store.write(moves);
+                store.flush();
+            } catch (IOException e) {
+                throw new IllegalStateException(
+                    "cannot write solution cache: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static boolean isBetter(Solution known, byte[] moves,
+                                    double suboptimality) {
+        return known == null
+            || suboptimality < known.suboptimality
+            || suboptimality == known.suboptimality
+                && moves.length < known.moves.length;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (store != null) {
+            store.close();
+            store = null;
+        }
+    }
+
+}
@@ -1,112 +1,246 @@
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 public class Solver {
 
-    private final MinPQ<SearchNode> searchQueue = new MinPQ<>();
-    private final Board initialBoard;
-    private final Board twinBoard;
+    /**
+     * Outcome of a solve
+     */
+    public enum Status {
+        SOLVED,
+        UNSOLVABLE,
+        // cancelled through the token or the future, or interrupted
+        CANCELLED,
+        // the token deadline passed
+        TIMED_OUT,
+        // the node budget of the options was spent
+        OUT_OF_BUDGET
+    }
 
-    private SearchNode solutionNode;
+    private final Board initial;
+    // ordinals of the moves taken by the blank, null when not solved
+    private final byte[] solution;
+    private final SearchStats stats;
+    private final Status status;
 
     public Solver(Board initial) {
-        if (initial == null) {
-            throw new NullPointerException("initial board is null");
-        }
+        this(initial, new SolverOptions());
+    }
 
-        this.initialBoard = initial;
-        this.twinBoard = initial.twin();
-        search();
+    public Solver(Board initial, SolverOptions options) {
+        this(initial, options, null);
     }
 
-    private class SearchNode implements Comparable<SearchNode> {
-        private final Board board;
-        private final SearchNode prev;
-        private final int moves;
+    /**
+     * Solve the board, giving up without a solution when the token is
+     * cancelled or expires (a null token never does)
+     */
+    public Solver(Board initial, SolverOptions options,
+                  CancellationToken token) {
+        if (initial == null) {
+            throw new NullPointerException("initial board is null");
+        }
 
-        private SearchNode(Board board, SearchNode prev, int moves) {
-            this.board = board;
-            this.prev = prev;
-            this.moves = moves;
+        if (options == null) {
+            throw new NullPointerException("options are null");
         }
 
-        private Board prevBoard() {
-            if (prev == null) {
-                return null;
-            } else {
-                return prev.board;
-            }
+        this.initial = initial;
+        stats = new SearchStats(options.listener(),
+            options.progressInterval(), token, options.nodeBudget());
+        stats.started();
+        stats.checkStop();
+        if (!initial.isSolvable()) {
+            solution = null;
+            status = Status.UNSOLVABLE;
+        } else if (stats.stopped()) {
+            solution = null;
+            status = stats.stopReason();
+        } else {
+            solution = solve(initial, options);
+            status = solution != null ? Status.SOLVED : stats.stopReason();
         }
+        stats.finished();
+    }
 
-        private int priority() {
-            return board.manhattan() + moves;
+    /**
+     * Solve the board on the executor. Cancelling the future, or the
+     * token, stops the search at the next check (within about a thousand
+     * expansions) and lets the thread go on with other work.
+     */
+    public static Future<Solver> solveAsync(final Board initial,
+                                            final SolverOptions options,
+                                            CancellationToken token,
+                                            Executor executor) {
+        if (executor == null) {
+            throw new NullPointerException("executor is null");
         }
 
-        @Override
-        public int compareTo(SearchNode otherNode) {
-            if (this == otherNode) {
-                return 0;
+        final CancellationToken solveToken =
+            token != null ? token : new CancellationToken();
+        FutureTask<Solver> task = new FutureTask<Solver>(
+            new Callable<Solver>() {
+                @Override
+                public Solver call() {
+                    return new Solver(initial, options, solveToken);
+                }
+            }) {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                solveToken.cancel();
+                return super.cancel(mayInterruptIfRunning);
             }
+        };
+        executor.execute(task);
 
-            if (otherNode == null) {
-                return 1;
-            }
+        return task;
+    }
 
-            int thisPriority = priority();
-            int otherPriority = otherNode.priority();
+    private byte[] solve(Board initial, SolverOptions options) {
+        SolutionCache cache = options.cache();
+        MoveListener moveListener = options.moveListener();
+        SolutionCache.Solution cached = cache == null
+            ? null : cache.get(initial, options.maxSuboptimality());
+        byte[] moves;
+        if (cached != null) {
+            moves = cached.moves();
+            stats.updateSuboptimality(cached.suboptimality());
+        } else {
+            SearchEngine engine = newSearchEngine(options, initial);
+            moves = engine.solve(initial, stats);
+            if (moves == null) {
+                return null;
+            }
+            if (cache != null) {
+                cache.put(initial, moves, stats.suboptimality());
+            }
+            if (engine instanceof ConstructiveSearch) {
+                // the moves were streamed while solving
+                moveListener = null;
+            }
+        }
 
-            if (thisPriority != otherPriority) {
-                return thisPriority - otherPriority;
-            } else {
-                return board.hamming() - otherNode.board.hamming();
+        if (moveListener != null) {
+            for (byte move : moves) {
+                moveListener.moved(Move.of(move));
             }
         }
+
+        return moves;
     }
 
-    private void search() {
+    private static SearchEngine newSearchEngine(SolverOptions options,
+                                                Board initial) {
+        if (options.table() != null && initial.dimension() == 3) {
+            return new TableSearch(options.table());
+        } else if (options.algorithm() == SolverOptions.Algorithm.IDA_STAR
+                   && options.threads() > 1) {
+            return new ParallelIDAStarSearch(options.heuristic(),
+                options.weight(), options.threads());
+        } else if (options.algorithm() == SolverOptions.Algorithm.IDA_STAR) {
+            return new IDAStarSearch(options.heuristic(), options.weight());
+        } else if (options.algorithm()
+                   == SolverOptions.Algorithm.CONSTRUCTIVE) {
+            return new ConstructiveSearch(options.moveListener());
+        } else if (options.algorithm()
+                   == SolverOptions.Algorithm.BIDIRECTIONAL) {
+            return new BidirectionalSearch(options.frontier(),
+                options.heuristic());
+        } else if (options.algorithm() == SolverOptions.Algorithm.ANYTIME) {
+            return new AnytimeSearch(options.frontier(), options.heuristic(),
+                options.weight(), options.timeLimit());
+        } else if (options.threads() > 1) {
+            return new HashDistributedSearch(options.frontier(),
+                options.heuristic(), options.weight(), options.threads());
+        } else if (initial.dimension() <= Board.PACKED_MAX_DIMENSION
+                   && options.offHeapMemory() > 0) {
+            return new OffHeapAStarSearch(options.frontier(),
+                options.heuristic(), options.weight(),
+                options.offHeapMemory(), options.spillDirectory());
+        } else if (initial.dimension() <= Board.PACKED_MAX_DIMENSION) {
+            return new CompactAStarSearch(options.frontier(),
+                options.heuristic(), options.weight());
+        } else {
+            return new AStarSearch(options.frontier(), options.heuristic(),
+                options.weight());
+        }
+    }
 
-        searchQueue.add(new SearchNode(initialBoard, null, 0));
-        searchQueue.add(new SearchNode(twinBoard, null, 0));
+    public SearchStats stats() {
+        return stats;
+    }
 
-        while (solutionNode == null && !Thread.currentThread().isInterrupted()) {
-            SearchNode min = searchQueue.poll();
-            if (min.board.isGoal()) {
-                solutionNode = min;
-                break;
-            }
-            for (Board board: min.board.neighbors()) {
-                if (!board.equals(min.prevBoard())) {
-                    searchQueue.add(new SearchNode(board, min, min.moves+1));
-                }
-            }
-        }
+    public Status status() {
+        return status;
     }
 
+    // whether a solution was found: false for unsolvable boards and for
+    // searches given up
     public boolean isSolvable() {
-        return solution() != null;
+        return solution != null;
     }
 
     public int moves() {
         if (isSolvable()) {
-            return solutionNode.moves;
+            return solution.length;
         } else {
             return -1;
         }
     }
 
+    // boards from the initial one to the goal, replayed from the moves
+    // on each iteration
     public Iterable<Board> solution() {
-        List<Board> boards = new ArrayList<>();
-        SearchNode ptr = solutionNode;
-        while (ptr != null) {
-            boards.add(ptr.board);
-            ptr = ptr.prev;
+        if (!isSolvable()) {
+            return null;
         }
-        Collections.reverse(boards);
-        if (boards.size() == 0 || boards.get(0).equals(twinBoard)) {
+
+        return new Iterable<Board>() {
+            @Override
+            public Iterator<Board> iterator() {
+                return new SolutionIterator();
+            }
+        };
+    }
+
+    // directions taken by the blank: Up, Down, Left or Right
+    public String moveSequence() {
+        if (!isSolvable()) {
             return null;
-        } else {
-            return boards;
+        }
+
+        return Move.sequence(solution);
+    }
+
+    private class SolutionIterator implements Iterator<Board> {
+
+        private Board current;
+        private int move = -1;
+
+        @Override
+        public boolean hasNext() {
+            return move < solution.length;
+        }
+
+        @Override
+        public Board next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("no more boards");
+            }
+
+            current = move < 0
+                ? initial : current.move(Move.of(solution[move]));
+            move++;
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("solution is read-only");
         }
     }
 
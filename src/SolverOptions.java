@@ -0,0 +1,270 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Search settings for the Solver
+ */
+public class SolverOptions {
+
+    /**
+     * Search algorithm used on solvable boards
+     */
+    public enum Algorithm {
+        // best-first search keeping every visited board in memory
+        A_STAR,
+        // depth-first iterative deepening with memory bounded by the depth
+        IDA_STAR,
+        // repeated weighted A* (ARA*) lowering the weight after each
+        // solution until it is optimal or the time limit is reached
+        ANYTIME,
+        // row by row and column by column placement of the blocks, for
+        // boards of any size; the solution is far from the shortest
+        CONSTRUCTIVE,
+        // A* forward from the initial board and backward from the goal
+        // (MM), meeting in the middle; the backward search estimates with
+        // Manhattan distances and the weight is not used
+        BIDIRECTIONAL
+    }
+
+    /**
+     * Priority queue used for the A* frontier
+     */
+    public enum Frontier {
+        // binary heap ordered by priority, then by hamming distance
+        BINARY_HEAP,
+        // one LIFO bucket per priority
+        BUCKET
+    }
+
+    private Algorithm algorithm = Algorithm.A_STAR;
+    private Frontier frontier = Frontier.BINARY_HEAP;
+    private Heuristic heuristic = new ManhattanHeuristic();
+    private EightPuzzleTable table;
+    private SearchListener listener;
+    private MoveListener moveListener;
+    private SolutionCache cache;
+    private long progressInterval = 1000;
+    private double weight = 1;
+    private long timeLimit;
+    private long nodeBudget;
+    private int threads = 1;
+    private long offHeapMemory;
+    private Path spillDirectory =
+        Paths.get(System.getProperty("java.io.tmpdir"));
+
+    public Algorithm algorithm() {
+        return algorithm;
+    }
+
+    public SolverOptions algorithm(Algorithm algorithm) {
+        if (algorithm == null) {
+            throw new NullPointerException("algorithm is null");
+        }
+
+        this.algorithm = algorithm;
+        return this;
+    }
+
+    public Frontier frontier() {
+        return frontier;
+    }
+
+    public SolverOptions frontier(Frontier frontier) {
+        if (frontier == null) {
+            throw new NullPointerException("frontier is null");
+        }
+
+        this.frontier = frontier;
+        return this;
+    }
+
+    public Heuristic heuristic() {
+        return heuristic;
+    }
+
+    public SolverOptions heuristic(Heuristic heuristic) {
+        if (heuristic == null) {
+            throw new NullPointerException("heuristic is null");
+        }
+
+        this.heuristic = heuristic;
+        return this;
+    }
+
+    public EightPuzzleTable table() {
+        return table;
+    }
+
+    /**
+     * Distance table answering 3x3 boards without searching,
+     * or null to search them like other boards
+     */
+    public SolverOptions table(EightPuzzleTable table) {
+        this.table = table;
+        return this;
+    }
+
+    public double weight() {
+        return weight;
+    }
+
+    /**
+     * Factor applied to the heuristic: solutions are at most weight
+     * times longer than optimal ones, and usually found much faster.
+     * Anytime searches start from this weight.
+     */
+    public SolverOptions weight(double weight) {
+        if (!(weight >= 1) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException(
+                "weight should be a finite number not less than 1");
+        }
+
+        this.weight = weight;
+        return this;
+    }
+
+    // milliseconds an anytime search keeps improving its solution,
+    // 0 to run until it is optimal
+    public long timeLimit() {
+        return timeLimit;
+    }
+
+    public SolverOptions timeLimit(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException(
+                "time limit should not be negative");
+        }
+
+        this.timeLimit = millis;
+        return this;
+    }
+
+    // expansions after which a search gives up, 0 for no limit
+    public long nodeBudget() {
+        return nodeBudget;
+    }
+
+    public SolverOptions nodeBudget(long nodeBudget) {
+        if (nodeBudget < 0) {
+            throw new IllegalArgumentException(
+                "node budget should not be negative");
+        }
+
+        this.nodeBudget = nodeBudget;
+        return this;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    /**
+     * Threads sharing an A* search, each one owning the boards whose hash
+     * falls in its share (HDA*), or an IDA* search, each one walking
+     * subtrees split near the root. Solutions stay the shortest.
+     */
+    public SolverOptions threads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads should be positive");
+        }
+
+        this.threads = threads;
+        return this;
+    }
+
+    // bytes of direct memory an A* closed set may take, 0 to keep it
+    // on the heap
+    public long offHeapMemory() {
+        return offHeapMemory;
+    }
+
+    /**
+     * Keeps the boards an A* search reached on boards up to 4x4 in a hash
+     * table outside the heap, taking up to this many bytes of direct
+     * memory and spilling the rest to files in the spill directory (while
+     * the table doubles, its old slots are kept on top of the limit).
+     * Searches on larger boards, shared between threads or using another
+     * algorithm keep their boards on the heap.
+     */
+    public SolverOptions offHeapMemory(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException(
+                "off-heap memory should not be negative");
+        }
+
+        this.offHeapMemory = bytes;
+        return this;
+    }
+
+    // directory of the files an off-heap closed set spills to, the
+    // temporary directory by default
+    public Path spillDirectory() {
+        return spillDirectory;
+    }
+
+    public SolverOptions spillDirectory(Path directory) {
+        if (directory == null) {
+            throw new NullPointerException("directory is null");
+        }
+
+        this.spillDirectory = directory;
+        return this;
+    }
+
+    public SolutionCache cache() {
+        return cache;
+    }
+
+    /**
+     * Cache answering boards solved before with a solution at least as
+     * short as these options guarantee, or null to always search
+     */
+    public SolverOptions cache(SolutionCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    // factor by which solutions found with these options may be longer
+    // than optimal ones
+    double maxSuboptimality() {
+        if (algorithm == Algorithm.CONSTRUCTIVE) {
+            return Double.POSITIVE_INFINITY;
+        } else {
+            return weight;
+        }
+    }
+
+    public SearchListener listener() {
+        return listener;
+    }
+
+    public SolverOptions listener(SearchListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public MoveListener moveListener() {
+        return moveListener;
+    }
+
+    public SolverOptions moveListener(MoveListener moveListener) {
+        this.moveListener = moveListener;
+        return this;
+    }
+
+    // milliseconds between two progress callbacks
+    public long progressInterval() {
+        return progressInterval;
+    }
+
+    public SolverOptions progressInterval(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException(
+                "progress interval should not be negative");
+        }
+
+        this.progressInterval = millis;
+        return this;
+    }
+
+}
@@ -0,0 +1,293 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running solver answering puzzles sent over loopback TCP
+ * connections. A connection sends puzzles in the standard input format
+ * one after another and reads one line of results per puzzle.
+ */
+public class SolverServer implements Runnable, Closeable {
+
+    // pause after a failed accept, so that running out of file
+    // descriptors does not spin
+    private static final long ACCEPT_BACKOFF_MILLIS = 100;
+
+    /**
+     * Options of the solver for boards of a dimension
+     */
+    public interface OptionsFactory {
+
+        SolverOptions options(int dimension) throws IOException;
+
+    }
+
+    private final ServerSocket serverSocket;
+    private final OptionsFactory optionsFactory;
+    private final long deadline;
+
+    // solves running at once
+    private final ExecutorService workers;
+    // one thread per open connection, waiting on its socket or its solve
+    private final ExecutorService connections;
+    // connections open at once; further ones are turned away
+    private final Semaphore connectionPermits;
+    private final Set<Socket> sockets = new HashSet<>();
+    private final Map<Integer, SolverOptions> options = new HashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Server listening on the loopback port (0 for any free port),
+     * solving at most threads puzzles at once for at most maxConnections
+     * clients, each puzzle within deadline milliseconds (0 for no limit)
+     */
+    public SolverServer(int port, int threads, int maxConnections,
+                        long deadline, OptionsFactory optionsFactory)
+        throws IOException {
+
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads should be positive");
+        }
+
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException(
+                "max connections should be positive");
+        }
+
+        if (deadline < 0) {
+            throw new IllegalArgumentException(
+                "deadline should not be negative");
+        }
+
+        if (optionsFactory == null) {
+            throw new NullPointerException("options factory is null");
+        }
+
+        this.serverSocket = new ServerSocket(port, maxConnections,
+            InetAddress.getLoopbackAddress());
+        this.optionsFactory = optionsFactory;
+        this.deadline = deadline;
+        this.workers = Executors.newFixedThreadPool(threads);
+        this.connections = Executors.newCachedThreadPool();
+        this.connectionPermits = new Semaphore(maxConnections);
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    // accepts connections until closed
+    @Override
+    public void run() {
+        while (!closed) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (closed) {
+                    return;
+                }
+                // a connection failed before being accepted, or the
+                // process is out of file descriptors for a while
+                try {
+                    Thread.sleep(ACCEPT_BACKOFF_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+
+            if (!connectionPermits.tryAcquire()) {
+                reject(socket);
+                continue;
+            }
+            if (!register(socket)) {
+                connectionPermits.release();
+                continue;
+            }
+            connections.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        serve(socket);
+                    } finally {
+                        unregister(socket);
+                        connectionPermits.release();
+                    }
+                }
+            });
+        }
+    }
+
+    // stops accepting connections, cancels running and queued solves and
+    // closes the open connections
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        // queued solves never run, their connections wait on them
+        for (Runnable queued : workers.shutdownNow()) {
+            if (queued instanceof Future) {
+                ((Future<?>) queued).cancel(true);
+            }
+        }
+        synchronized (sockets) {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            sockets.clear();
+        }
+        connections.shutdownNow();
+    }
+
+    // whether every solve and connection thread ended within the timeout,
+    // once closed
+    boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+
+        long end = System.nanoTime() + unit.toNanos(timeout);
+        return workers.awaitTermination(timeout, unit)
+            && connections.awaitTermination(end - System.nanoTime(),
+                TimeUnit.NANOSECONDS);
+    }
+
+    private static void reject(Socket socket) {
+        try (Socket rejected = socket) {
+            Writer out = new OutputStreamWriter(
+                rejected.getOutputStream(), StandardCharsets.US_ASCII);
+            out.write("error=server busy\n");
+            out.flush();
+        } catch (IOException e) {
+            // the client is gone already
+        }
+    }
+
+    private boolean register(Socket socket) {
+        synchronized (sockets) {
+            if (closed) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // closing anyway
+                }
+                return false;
+            }
+            sockets.add(socket);
+            return true;
+        }
+    }
+
+    private void unregister(Socket socket) {
+        synchronized (sockets) {
+            sockets.remove(socket);
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // closing anyway
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (PuzzleReader in = new PuzzleReader(
+                 Channels.newChannel(socket.getInputStream()));
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(
+                 socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+
+            while (!closed) {
+                Board board;
+                try {
+                    board = in.next();
+                } catch (PuzzleFormatException e) {
+                    // the rest of the stream cannot be trusted
+                    out.print("error=invalid puzzle: " + e.getMessage()
+                        + "\n");
+                    return;
+                }
+                if (board == null) {
+                    return;
+                }
+
+                out.print(solve(board) + "\n");
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the client is gone, or the server was closed
+        }
+    }
+
+    private String solve(Board board) {
+        SolverOptions boardOptions;
+        try {
+            boardOptions = options(board.dimension());
+        } catch (IOException | IllegalArgumentException e) {
+            return "error=cannot load search tables: " + e.getMessage();
+        }
+
+        CancellationToken token = deadline > 0
+            ? new CancellationToken(deadline, TimeUnit.MILLISECONDS)
+            : new CancellationToken();
+        long start = System.nanoTime();
+        Future<Solver> future;
+        Solver solver;
+        try {
+            future = Solver.solveAsync(board, boardOptions, token, workers);
+        } catch (RuntimeException e) {
+            // the workers were shut down
+            return "error=server closed";
+        }
+        try {
+            solver = future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return "error=server closed";
+        } catch (CancellationException e) {
+            // still queued when the server was closed
+            return "error=server closed";
+        } catch (ExecutionException e) {
+            return "error=" + e.getCause();
+        }
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        SearchStats stats = solver.stats();
+        return String.format("moves=%d time=%.3fms status=%s expanded=%d "
+            + "generated=%d path=%s", solver.moves(), millis,
+            solver.status(), stats.expanded(), stats.generated(),
+            BatchSolver.path(solver));
+    }
+
+    // options are made once per dimension, as loading the search tables
+    // may take a while
+    private SolverOptions options(int dimension) throws IOException {
+        synchronized (options) {
+            SolverOptions dimensionOptions = options.get(dimension);
+            if (dimensionOptions == null) {
+                dimensionOptions = optionsFactory.options(dimension);
+                options.put(dimension, dimensionOptions);
+            }
+
+            return dimensionOptions;
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+/**
+ * Search-free solution of 3x3 boards, following neighbors one move
+ * closer to the goal according to a complete distance table
+ */
+class TableSearch implements SearchEngine {
+
+    private final EightPuzzleTable table;
+
+    TableSearch(EightPuzzleTable table) {
+        this.table = table;
+    }
+
+    @Override
+    public byte[] solve(Board initial, SearchStats stats) {
+        Board current = initial;
+        int distance = table.distance(current);
+        if (distance < 0) {
+            // only solvable boards are searched
+            throw new IllegalStateException(
+                "distance table does not reach a solvable board");
+        }
+        byte[] moves = new byte[distance];
+
+        for (int i = 0; i < moves.length; i++) {
+            stats.countExpanded();
+            Board closer = null;
+            for (Board neighbor : current.neighbors()) {
+                stats.countGenerated();
+                if (table.distance(neighbor) == moves.length - i - 1) {
+                    closer = neighbor;
+                    break;
+                }
+            }
+            if (closer == null) {
+                throw new IllegalStateException(
+                    "distance table has no neighbor one move closer");
+            }
+            moves[i] = (byte) Move.between(current.blank(), closer.blank(),
+                current.dimension()).ordinal();
+            current = closer;
+        }
+
+        return moves;
+    }
+
+}
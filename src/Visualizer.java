@@ -9,10 +9,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CancellationException;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 import javax.swing.BorderFactory;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -31,18 +28,27 @@ public class Visualizer extends JFrame {
     private static final String SEARCH_INFO = "Searching for a solution...";
     private static final String UNSOLVABLE_INFO = "Puzzle is unsolvable";
     private static final String MOVE_INFO = "Moving puzzle %d/%d";
-    private static final String CANCEL_INFO = "Searching cancelled after "
-                                              + "%ds timeout expired";
+    private static final String TIMEOUT_INFO = "Searching cancelled after "
+                                               + "%ds timeout expired";
+    private static final String BUDGET_INFO = "Searching stopped after "
+                                              + "%d expanded boards";
+    private static final String CANCEL_INFO = "Searching cancelled";
 
     private final List<JLabel> puzzles = new ArrayList<>();
     private final JLabel statusLabel = new JLabel();
 
     private final int gridWidth;
     private final Board initialBoard;
+    private final SolverOptions solverOptions;
 
     public Visualizer(Board initial) {
+        this(initial, new SolverOptions());
+    }
+
+    public Visualizer(Board initial, SolverOptions options) {
         gridWidth = initial.dimension();
         initialBoard = initial;
+        solverOptions = options;
 
         setTitle(TITLE);
         setLayout(new BorderLayout());
@@ -55,7 +61,7 @@ public class Visualizer extends JFrame {
         setVisible(true);
 
         updateGrid(extractBlocks(initialBoard));
-        new TimedSolverTask().execute();
+        new SolverTask().execute();
     }
 
     private JPanel makeGrid() {
@@ -90,69 +96,68 @@ public class Visualizer extends JFrame {
         return statusPanel;
     }
 
-    private class TimedSolverTask extends SwingWorker<Solver, Void> {
-        @Override
-        public Solver doInBackground()
-            throws TimeoutException, InterruptedException, ExecutionException {
-
-            SwingWorker<Solver, Void> worker = new SolverTask();
-            worker.execute();
-
-            try {
-                return worker.get(SOLVE_TIMEOUT, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                worker.cancel(true);
-                throw e;
-            }
-        }
-    }
-
     private class SolverTask extends SwingWorker<Solver, Void> {
         @Override
         public Solver doInBackground() {
-            return new Solver(initialBoard);
+            return new Solver(initialBoard, solverOptions,
+                new CancellationToken(SOLVE_TIMEOUT, TimeUnit.SECONDS));
         }
 
         @Override
         protected void done() {
             try {
                 draw(get());
-            } catch (CancellationException e) {
-                statusLabel.setText(String.format(CANCEL_INFO, SOLVE_TIMEOUT));
             } catch (Exception e) {
                 e.printStackTrace();
             }
         }
     }
 
-    private void draw(final Solver solver) {
-
-        if (!solver.isSolvable()) {
-            statusLabel.setText(UNSOLVABLE_INFO);
-        } else {
-            final Iterator<Board> it = solver.solution().iterator();
-            it.next();
-            Timer timer = new Timer(MOVE_DELAY, new ActionListener() {
-                private int move = 1;
-                @Override
-                public void actionPerformed(ActionEvent e) {
-                    if (!it.hasNext()) {
-                        ((Timer) e.getSource()).stop();
-                    } else {
-                        Board board = it.next();
-                        updateGrid(extractBlocks(board));
-                        Toolkit.getDefaultToolkit().sync();
-                        statusLabel.setText(
-                            String.format(MOVE_INFO, move, solver.moves()));
-                        move++;
-                    }
-                }
-            });
-            timer.setInitialDelay(MOVE_DELAY);
-            timer.start();
+    private void draw(Solver solver) {
+
+        switch (solver.status()) {
+            case SOLVED:
+                animate(solver);
+                break;
+            case UNSOLVABLE:
+                statusLabel.setText(UNSOLVABLE_INFO);
+                break;
+            case TIMED_OUT:
+                statusLabel.setText(String.format(TIMEOUT_INFO, SOLVE_TIMEOUT));
+                break;
+            case OUT_OF_BUDGET:
+                statusLabel.setText(String.format(BUDGET_INFO,
+                    solverOptions.nodeBudget()));
+                break;
+            case CANCELLED:
+                statusLabel.setText(CANCEL_INFO);
+                break;
         }
     }
 
+    private void animate(final Solver solver) {
+        final Iterator<Board> it = solver.solution().iterator();
+        it.next();
+        Timer timer = new Timer(MOVE_DELAY, new ActionListener() {
+            private int move = 1;
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (!it.hasNext()) {
+                    ((Timer) e.getSource()).stop();
+                } else {
+                    Board board = it.next();
+                    updateGrid(extractBlocks(board));
+                    Toolkit.getDefaultToolkit().sync();
+                    statusLabel.setText(
+                        String.format(MOVE_INFO, move, solver.moves()));
+                    move++;
+                }
+            }
+        });
+        timer.setInitialDelay(MOVE_DELAY);
+        timer.start();
+    }
+
     private void updateGrid(List<String> blocks) {
         for (int i = 0; i < puzzles.size(); i++) {
             if (!blocks.get(i).equals("0")) {
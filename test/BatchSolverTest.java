@@ -0,0 +1,88 @@
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class BatchSolverTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final Board solvable = new Board(new int[][]{
+        new int[]{0, 1},
+        new int[]{3, 2}});
+
+    private final Board unsolvable = new Board(new int[][]{
+        new int[]{0, 1},
+        new int[]{2, 3}});
+
+    private final Board deep = new Board(new int[][]{
+        new int[]{8, 6, 7},
+        new int[]{2, 5, 4},
+        new int[]{3, 0, 1}});
+
+    @Test
+    public void constructWithoutThreadsThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("threads should be positive");
+
+        new BatchSolver(0, 1, false, System.out);
+    }
+
+    @Test
+    public void solveInOrder() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BatchSolver batch =
+            new BatchSolver(4, 2, true, new PrintStream(bytes, true));
+
+        for (int i = 0; i < 20; i++) {
+            batch.submit(i % 2 == 0 ? solvable : unsolvable,
+                         new SolverOptions());
+        }
+        batch.finish();
+
+        String[] lines = bytes.toString().split("\n");
+        assertThat(lines.length, is(20));
+        for (int i = 0; i < 20; i++) {
+            if (i % 2 == 0) {
+                assertThat(lines[i], startsWith("#" + (i + 1) + " moves=2 "));
+                assertThat(lines[i], containsString(
+                    " status=SOLVED expanded=2 generated=4 path=RD"));
+            } else {
+                assertThat(lines[i], startsWith("#" + (i + 1) + " moves=-1 "));
+                assertThat(lines[i], containsString(
+                    " status=UNSOLVABLE expanded=0 generated=0 path=-"));
+            }
+        }
+    }
+
+    @Test
+    public void path() {
+        assertThat(BatchSolver.path(new Solver(solvable)), is("RD"));
+        assertThat(BatchSolver.path(new Solver(unsolvable)), is("-"));
+        assertThat(BatchSolver.path(new Solver(deep,
+            new SolverOptions().nodeBudget(10))), is("?"));
+    }
+
+    @Test
+    public void reportSpentNodeBudget() throws InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BatchSolver batch =
+            new BatchSolver(1, 1, true, new PrintStream(bytes, true));
+
+        batch.submit(deep, new SolverOptions().nodeBudget(10));
+        batch.finish();
+
+        assertThat(bytes.toString(), startsWith("#1 moves=-1 "));
+        assertThat(bytes.toString(), containsString(
+            " status=OUT_OF_BUDGET expanded=10 generated="));
+        assertThat(bytes.toString(), containsString(" path=?"));
+    }
+
+}
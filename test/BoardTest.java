@@ -133,6 +133,41 @@ public class BoardTest {
         assertThat(board.isGoal(), is(true));
     }
 
+    @Test
+    public void isSolvableWithEvenPermutation() {
+        int[][] blocks = new int[][]{
+            new int[]{8, 1, 3},
+            new int[]{4, 0, 2},
+            new int[]{7, 6, 5}};
+        Board board = new Board(blocks);
+
+        assertThat(board.isSolvable(), is(true));
+    }
+
+    @Test
+    public void isSolvableWithOddPermutation() {
+        int[][] blocks = new int[][]{
+            new int[]{1, 2, 3},
+            new int[]{4, 5, 6},
+            new int[]{8, 7, 0}};
+        Board board = new Board(blocks);
+
+        assertThat(board.isSolvable(), is(false));
+    }
+
+    @Test
+    public void isSolvableWithBlankOnOddRow() {
+        int[][] blocks = new int[][]{
+            new int[]{1, 2, 3, 4},
+            new int[]{5, 6, 7, 8},
+            new int[]{9, 10, 0, 11},
+            new int[]{13, 14, 15, 12}};
+        Board board = new Board(blocks);
+
+        assertThat(board.isSolvable(), is(true));
+        assertThat(board.twin().isSolvable(), is(false));
+    }
+
     @Test
     public void twinWhenBlankAtTop() {
         int[][] blocks1 = new int[][]{
@@ -197,6 +232,52 @@ public class BoardTest {
         assertThat(board2.equals(board1), is(false));
     }
 
+    @Test
+    public void notEqualsWithDifferentDimension() {
+        Board board1 = new Board(new int[2][2]);
+        Board board2 = new Board(new int[3][3]);
+
+        assertThat(board1.equals(board2), is(false));
+        assertThat(board2.equals(board1), is(false));
+    }
+
+    @Test
+    public void hashCodeOfEqualBoards() {
+        int[][] blocks = new int[][]{
+            new int[]{1, 2, 3, 4},
+            new int[]{5, 6, 7, 8},
+            new int[]{9, 10, 11, 12},
+            new int[]{13, 14, 0, 15}};
+
+        assertThat(new Board(blocks).hashCode(),
+                   is(new Board(blocks).hashCode()));
+    }
+
+    @Test
+    public void keyOfEqualBoards() {
+        int[][] blocks = new int[][]{
+            new int[]{8, 1, 3},
+            new int[]{4, 0, 2},
+            new int[]{7, 6, 5}};
+
+        assertThat(new Board(blocks).key(), equalTo(new Board(blocks).key()));
+    }
+
+    @Test
+    public void keyOfDifferentBoards() {
+        int[][] blocks1 = new int[][]{
+            new int[]{1, 2},
+            new int[]{3, 0}};
+        Board board1 = new Board(blocks1);
+
+        int[][] blocks2 = new int[][]{
+            new int[]{1, 0},
+            new int[]{3, 2}};
+        Board board2 = new Board(blocks2);
+
+        assertThat(board1.key().equals(board2.key()), is(false));
+    }
+
     @Test
     public void topLeftNeighbors() {
         int[][] blocks = new int[][]{
@@ -237,6 +318,41 @@ public class BoardTest {
         assertThat(board.neighbors(), contains(neighbor1, neighbor2));
     }
 
+    @Test
+    public void neighborsKeepHammingAndManhattan() {
+        int[][] blocks = new int[][]{
+            new int[]{8, 1, 3},
+            new int[]{4, 0, 2},
+            new int[]{7, 6, 5}};
+        Board board = new Board(blocks);
+
+        for (Board neighbor : board.neighbors()) {
+            Board copy = copyOf(neighbor);
+            assertThat(neighbor.hamming(), is(copy.hamming()));
+            assertThat(neighbor.manhattan(), is(copy.manhattan()));
+            for (Board next : neighbor.neighbors()) {
+                assertThat(next.hamming(), is(copyOf(next).hamming()));
+                assertThat(next.manhattan(), is(copyOf(next).manhattan()));
+            }
+        }
+    }
+
+    @Test
+    public void neighborsOfLargeBoard() {
+        int[][] blocks = new int[5][5];
+        for (int i = 0; i < 25; i++) {
+            blocks[i / 5][i % 5] = (i + 7) % 25;
+        }
+        Board board = new Board(blocks);
+
+        for (Board neighbor : board.neighbors()) {
+            Board copy = copyOf(neighbor);
+            assertThat(neighbor, equalTo(copy));
+            assertThat(neighbor.manhattan(), is(copy.manhattan()));
+            assertThat(neighbor.twin(), equalTo(copy.twin()));
+        }
+    }
+
     @Test
     public void boardAsString() {
         int[][] blocks = new int[][]{
@@ -250,4 +366,15 @@ public class BoardTest {
             is("3\n 1  2  3 \n 4  5  6 \n 7  8  0 \n"));
     }
 
+    private static Board copyOf(Board board) {
+        String[] items = board.toString().trim().split("\\s+");
+        int dim = Integer.parseInt(items[0]);
+        int[][] blocks = new int[dim][dim];
+        for (int i = 0; i < dim * dim; i++) {
+            blocks[i / dim][i % dim] = Integer.parseInt(items[i + 1]);
+        }
+
+        return new Board(blocks);
+    }
+
 }
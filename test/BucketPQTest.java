@@ -0,0 +1,108 @@
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class BucketPQTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static class Item implements BucketPQ.Item {
+        private final int priority;
+        private final String name;
+
+        private Item(int priority, String name) {
+            this.priority = priority;
+            this.name = name;
+        }
+
+        @Override
+        public int priority() {
+            return priority;
+        }
+    }
+
+    @Test
+    public void sizeOfEmptyQueue() {
+        BucketPQ<Item> pq = new BucketPQ<>();
+
+        assertThat(pq.size(), is(0));
+    }
+
+    @Test
+    public void addNullThrowsException() {
+        thrown.expect(NullPointerException.class);
+        thrown.expectMessage("item is null");
+
+        new BucketPQ<Item>().add(null);
+    }
+
+    @Test
+    public void addNegativePriorityThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("priority is negative");
+
+        new BucketPQ<Item>().add(new Item(-1, "a"));
+    }
+
+    @Test
+    public void add() {
+        BucketPQ<Item> pq = new BucketPQ<>();
+
+        pq.add(new Item(6, "a"));
+        pq.add(new Item(2, "b"));
+        pq.add(new Item(9, "c"));
+        pq.add(new Item(1, "d"));
+
+        assertThat(pq.size(), is(4));
+    }
+
+    @Test
+    public void poll() {
+        BucketPQ<Item> pq = new BucketPQ<>();
+
+        pq.add(new Item(6, "a"));
+        pq.add(new Item(2, "b"));
+        pq.add(new Item(9, "c"));
+        pq.add(new Item(1, "d"));
+
+        assertThat(pq.poll().name, is("d"));
+        assertThat(pq.poll().name, is("b"));
+        assertThat(pq.poll().name, is("a"));
+        assertThat(pq.poll().name, is("c"));
+        assertThat(pq.poll(), is(nullValue()));
+    }
+
+    @Test
+    public void pollSamePriorityInLifoOrder() {
+        BucketPQ<Item> pq = new BucketPQ<>();
+
+        pq.add(new Item(3, "a"));
+        pq.add(new Item(3, "b"));
+        pq.add(new Item(3, "c"));
+
+        assertThat(pq.poll().name, is("c"));
+        assertThat(pq.poll().name, is("b"));
+        assertThat(pq.poll().name, is("a"));
+    }
+
+    @Test
+    public void pollAfterAddingLowerPriority() {
+        BucketPQ<Item> pq = new BucketPQ<>();
+
+        pq.add(new Item(5, "a"));
+        pq.add(new Item(7, "b"));
+        assertThat(pq.poll().name, is("a"));
+
+        pq.add(new Item(2, "c"));
+
+        assertThat(pq.poll().name, is("c"));
+        assertThat(pq.poll().name, is("b"));
+        assertThat(pq.size(), is(0));
+    }
+
+}
@@ -0,0 +1,117 @@
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class EightPuzzleTableTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static EightPuzzleTable table;
+
+    private final Board board = new Board(new int[][]{
+        new int[]{8, 1, 3},
+        new int[]{4, 0, 2},
+        new int[]{7, 6, 5}});
+
+    @BeforeClass
+    public static void buildTable() {
+        table = EightPuzzleTable.build();
+    }
+
+    @Test
+    public void distanceOfGoal() {
+        Board goal = new Board(new int[][]{
+            new int[]{1, 2, 3},
+            new int[]{4, 5, 6},
+            new int[]{7, 8, 0}});
+
+        assertThat(table.distance(goal), is(0));
+    }
+
+    @Test
+    public void distanceOfSolvableBoard() {
+        assertThat(table.distance(board), is(new Solver(board).moves()));
+    }
+
+    @Test
+    public void distanceOfUnsolvableBoard() {
+        assertThat(table.distance(board.twin()), is(-1));
+    }
+
+    @Test
+    public void distanceWithWrongDimensionThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("board dimension should be 3");
+
+        table.distance(new Board(new int[4][4]));
+    }
+
+    @Test
+    public void saveAndLoad() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("table.bin");
+
+        table.save(path);
+
+        assertThat(EightPuzzleTable.load(path).distance(board),
+                   is(table.distance(board)));
+    }
+
+    // table of the given distance for every board
+    private EightPuzzleTable corruptTable(int distance) throws IOException {
+        Path path = folder.getRoot().toPath().resolve("corrupt.bin");
+        table.save(path);
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path));
+        Arrays.fill(bytes.array(), 4, bytes.capacity(), (byte) distance);
+        Files.write(path, bytes.array());
+
+        return EightPuzzleTable.load(path);
+    }
+
+    @Test
+    public void unreachableSolvableBoardThrowsException() throws IOException {
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("distance table does not reach a solvable board");
+
+        new Solver(board, new SolverOptions().table(corruptTable(0xFF)));
+    }
+
+    @Test
+    public void noCloserNeighborThrowsException() throws IOException {
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("distance table has no neighbor one move closer");
+
+        new Solver(board, new SolverOptions().table(corruptTable(5)));
+    }
+
+    @Test
+    public void solverUsesTable() {
+        SolverOptions options = new SolverOptions().table(table);
+        Solver solver = new Solver(board, options);
+
+        assertThat(solver.moves(), is(table.distance(board)));
+        Board previous = null;
+        for (Board next : solver.solution()) {
+            if (previous != null) {
+                assertThat(table.distance(next),
+                           is(table.distance(previous) - 1));
+            }
+            previous = next;
+        }
+        assertThat(previous.isGoal(), is(true));
+    }
+
+}
@@ -0,0 +1,87 @@
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class LinearConflictHeuristicTest {
+
+    private final Heuristic heuristic = new LinearConflictHeuristic();
+
+    @Test
+    public void estimateWithoutConflicts() {
+        Board board = new Board(new int[][]{
+            new int[]{8, 1, 3},
+            new int[]{4, 0, 2},
+            new int[]{7, 6, 5}});
+
+        assertThat(heuristic.estimate(board), is(board.manhattan()));
+    }
+
+    @Test
+    public void estimateWithRowConflict() {
+        Board board = new Board(new int[][]{
+            new int[]{2, 1, 3},
+            new int[]{4, 5, 6},
+            new int[]{7, 8, 0}});
+
+        assertThat(heuristic.estimate(board), is(board.manhattan() + 2));
+    }
+
+    @Test
+    public void estimateWithConflictsInSeveralRows() {
+        Board board = new Board(new int[][]{
+            new int[]{3, 2, 1},
+            new int[]{4, 5, 6},
+            new int[]{0, 8, 7}});
+
+        // 3 2 1 needs two blocks out of the first row, 8 7 one block
+        // out of the last row
+        assertThat(heuristic.estimate(board), is(board.manhattan() + 6));
+    }
+
+    @Test
+    public void estimateWithColumnConflict() {
+        Board board = new Board(new int[][]{
+            new int[]{4, 2, 3},
+            new int[]{1, 5, 6},
+            new int[]{7, 8, 0}});
+
+        assertThat(heuristic.estimate(board), is(board.manhattan() + 2));
+    }
+
+    @Test
+    public void estimateWithConflictsInWideRow() {
+        int dimension = 70;
+        int[][] blocks = new int[dimension][dimension];
+        for (int i = 0; i < dimension * dimension; i++) {
+            blocks[i / dimension][i % dimension] =
+                (i + 1) % (dimension * dimension);
+        }
+        // one pair swapped across the 64th column, one pair beyond it
+        blocks[0][63] = 65;
+        blocks[0][64] = 64;
+        blocks[0][67] = 69;
+        blocks[0][68] = 68;
+        Board board = new Board(blocks);
+
+        assertThat(heuristic.estimate(board), is(board.manhattan() + 4));
+    }
+
+    @Test
+    public void updateMatchesEstimate() {
+        Board board = new Board(new int[][]{
+            new int[]{3, 2, 1, 4},
+            new int[]{9, 6, 7, 8},
+            new int[]{5, 10, 0, 11},
+            new int[]{13, 15, 14, 12}});
+
+        int estimate = heuristic.estimate(board);
+        for (Board neighbor : board.neighbors()) {
+            assertThat(
+                heuristic.update(neighbor, estimate,
+                                 neighbor.blank(), board.blank()),
+                is(heuristic.estimate(neighbor)));
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class ManhattanHeuristicTest {
+
+    private final Heuristic heuristic = new ManhattanHeuristic();
+
+    private final Board board = new Board(new int[][]{
+        new int[]{8, 1, 3},
+        new int[]{4, 0, 2},
+        new int[]{7, 6, 5}});
+
+    @Test
+    public void estimate() {
+        assertThat(heuristic.estimate(board), is(10));
+    }
+
+    @Test
+    public void estimateWithOrderedBlocks() {
+        Board goal = new Board(new int[][]{
+            new int[]{1, 2, 3},
+            new int[]{4, 5, 6},
+            new int[]{7, 8, 0}});
+
+        assertThat(heuristic.estimate(goal), is(0));
+    }
+
+    @Test
+    public void update() {
+        for (Board neighbor : board.neighbors()) {
+            assertThat(
+                heuristic.update(neighbor, heuristic.estimate(board),
+                                 neighbor.blank(), board.blank()),
+                is(neighbor.manhattan()));
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class MaxHeuristicTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final Board board = new Board(new int[][]{
+        new int[]{2, 1, 3},
+        new int[]{4, 5, 6},
+        new int[]{7, 8, 0}});
+
+    @Test
+    public void constructWithoutHeuristicsThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("heuristics are empty");
+
+        new MaxHeuristic();
+    }
+
+    @Test
+    public void constructWithNullHeuristicThrowsException() {
+        thrown.expect(NullPointerException.class);
+        thrown.expectMessage("heuristic is null");
+
+        new MaxHeuristic(new ManhattanHeuristic(), null);
+    }
+
+    @Test
+    public void estimate() {
+        Heuristic heuristic = new MaxHeuristic(
+            new ManhattanHeuristic(), new LinearConflictHeuristic());
+
+        assertThat(heuristic.estimate(board), is(board.manhattan() + 2));
+    }
+
+    @Test
+    public void update() {
+        Heuristic heuristic = new MaxHeuristic(
+            new ManhattanHeuristic(), new LinearConflictHeuristic());
+
+        int estimate = heuristic.estimate(board);
+        for (Board neighbor : board.neighbors()) {
+            assertThat(
+                heuristic.update(neighbor, estimate,
+                                 neighbor.blank(), board.blank()),
+                is(heuristic.estimate(neighbor)));
+        }
+    }
+
+}
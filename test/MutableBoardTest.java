@@ -0,0 +1,103 @@
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class MutableBoardTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private final Board initial = new Board(new int[][]{
+        new int[]{1, 2, 3},
+        new int[]{4, 0, 5},
+        new int[]{7, 8, 6}});
+
+    @Test
+    public void constructWithNullThrowsException() {
+        thrown.expect(NullPointerException.class);
+        thrown.expectMessage("board is null");
+
+        new MutableBoard(null);
+    }
+
+    @Test
+    public void copiesBoard() {
+        MutableBoard board = new MutableBoard(initial);
+
+        assertThat(board.toBoard(), is(equalTo(initial)));
+        assertThat(board.blank(), is(4));
+        assertThat(board.manhattan(), is(initial.manhattan()));
+    }
+
+    @Test
+    public void applyMoveMovesBlank() {
+        MutableBoard board = new MutableBoard(initial);
+
+        board.applyMove(Move.RIGHT);
+
+        assertThat(board.blank(), is(5));
+        assertThat(board.block(4), is(5));
+        assertThat(board.manhattan(), is(1));
+
+        board.applyMove(Move.DOWN);
+
+        assertThat(board.isGoal(), is(true));
+        assertThat(board.manhattan(), is(0));
+    }
+
+    @Test
+    public void undoMoveRestoresBoard() {
+        MutableBoard board = new MutableBoard(initial);
+
+        for (Move move : Move.values()) {
+            board.applyMove(move);
+            board.undoMove(move);
+
+            assertThat(board.toBoard(), is(equalTo(initial)));
+            assertThat(board.manhattan(), is(initial.manhattan()));
+        }
+    }
+
+    @Test
+    public void legalMovesInCenter() {
+        MutableBoard board = new MutableBoard(initial);
+
+        assertThat(board.legalMoves(), is(0xF));
+    }
+
+    @Test
+    public void legalMovesInCorner() {
+        MutableBoard board = new MutableBoard(initial);
+        board.applyMove(Move.UP);
+        board.applyMove(Move.LEFT);
+
+        assertThat(board.legalMoves(), is(
+            1 << Move.DOWN.ordinal() | 1 << Move.RIGHT.ordinal()));
+        assertThat(board.canMove(Move.UP), is(false));
+        assertThat(board.canMove(Move.RIGHT), is(true));
+    }
+
+    @Test
+    public void illegalMoveThrowsException() {
+        MutableBoard board = new MutableBoard(initial);
+        board.applyMove(Move.LEFT);
+
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("move LEFT takes the blank off the board");
+
+        board.applyMove(Move.LEFT);
+    }
+
+    @Test
+    public void oppositeMoves() {
+        assertThat(Move.UP.opposite(), is(Move.DOWN));
+        assertThat(Move.DOWN.opposite(), is(Move.UP));
+        assertThat(Move.LEFT.opposite(), is(Move.RIGHT));
+        assertThat(Move.RIGHT.opposite(), is(Move.LEFT));
+    }
+
+}
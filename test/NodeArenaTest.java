@@ -0,0 +1,78 @@
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class NodeArenaTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void negativeCapacityThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("capacity is negative");
+
+        new NodeArena(-1);
+    }
+
+    @Test
+    public void findInEmptyArena() {
+        NodeArena arena = new NodeArena(0);
+
+        assertThat(arena.size(), is(0));
+        assertThat(arena.find(0x12345678L), is(-1));
+    }
+
+    @Test
+    public void addKeepsNodeFields() {
+        NodeArena arena = new NodeArena(0);
+
+        int root = arena.add(0x0321L, 0, NodeArena.NO_PARENT, 0, 3);
+        int child = arena.add(0x3021L, 2, root, 1, 2);
+
+        assertThat(arena.size(), is(2));
+        assertThat(arena.find(0x0321L), is(root));
+        assertThat(arena.find(0x3021L), is(child));
+        assertThat(arena.state(child), is(0x3021L));
+        assertThat(arena.blank(child), is(2));
+        assertThat(arena.parent(child), is(root));
+        assertThat(arena.parent(root), is(NodeArena.NO_PARENT));
+        assertThat(arena.moves(child), is(1));
+        assertThat(arena.estimate(child), is(2));
+    }
+
+    @Test
+    public void reachRecordsShorterPath() {
+        NodeArena arena = new NodeArena(0);
+        int root = arena.add(1L, 0, NodeArena.NO_PARENT, 0, 5);
+        int node = arena.add(2L, 1, NodeArena.NO_PARENT, 7, 4);
+
+        arena.reach(node, root, 1);
+
+        assertThat(arena.parent(node), is(root));
+        assertThat(arena.moves(node), is(1));
+        assertThat(arena.estimate(node), is(4));
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        NodeArena arena = new NodeArena(16);
+        for (int i = 0; i < 100000; i++) {
+            // states sharing their low bits
+            assertThat(arena.add((long) i << 32, i & 0xF, i - 1, i & 0xFFFF,
+                i % 80), is(i));
+        }
+
+        assertThat(arena.size(), is(100000));
+        for (int i = 0; i < 100000; i++) {
+            assertThat(arena.find((long) i << 32), is(i));
+            assertThat(arena.parent(i), is(i - 1));
+            assertThat(arena.moves(i), is(i & 0xFFFF));
+        }
+        assertThat(arena.find(100000L << 32), is(-1));
+    }
+
+}
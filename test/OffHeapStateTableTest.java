@@ -0,0 +1,143 @@
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class OffHeapStateTableTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path spillDirectory() {
+        return folder.getRoot().toPath();
+    }
+
+    @Test
+    public void negativeMemoryLimitThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("memory limit is negative");
+
+        new OffHeapStateTable(-1, spillDirectory());
+    }
+
+    @Test
+    public void nullSpillDirectoryThrowsException() {
+        thrown.expect(NullPointerException.class);
+        thrown.expectMessage("spill directory is null");
+
+        new OffHeapStateTable(0, null);
+    }
+
+    @Test
+    public void insertKeepsNodeFields() throws IOException {
+        try (OffHeapStateTable table =
+                 new OffHeapStateTable(1 << 20, spillDirectory())) {
+            long empty = table.find(0x0321L);
+            assertThat(empty, is(lessThan(0L)));
+
+            long slot = table.insert(empty, 0x0321L, 7, 12, 3,
+                Move.LEFT.ordinal());
+
+            assertThat(table.size(), is(1L));
+            assertThat(table.find(0x0321L), is(slot));
+            assertThat(table.state(slot), is(0x0321L));
+            assertThat(table.moves(slot), is(7));
+            assertThat(table.estimate(slot), is(12));
+            assertThat(table.blank(slot), is(3));
+            assertThat(table.parentMove(slot), is(Move.LEFT.ordinal()));
+            assertThat(table.spilledBytes(), is(0L));
+        }
+    }
+
+    @Test
+    public void reachRecordsShorterPath() throws IOException {
+        try (OffHeapStateTable table =
+                 new OffHeapStateTable(1 << 20, spillDirectory())) {
+            long slot = table.insert(table.find(5L), 5L, 9, 4, 0,
+                OffHeapStateTable.NO_MOVE);
+
+            table.reach(slot, 2, Move.UP.ordinal());
+
+            assertThat(table.moves(slot), is(2));
+            assertThat(table.parentMove(slot), is(Move.UP.ordinal()));
+            assertThat(table.estimate(slot), is(4));
+        }
+    }
+
+    @Test
+    public void growsAndReportsMetrics() throws IOException {
+        try (OffHeapStateTable table =
+                 new OffHeapStateTable(1 << 30, spillDirectory())) {
+            for (long i = 1; i <= 100000; i++) {
+                // states sharing their low bits
+                table.insert(table.find(i << 32), i << 32, (int) i & 0xFFFF,
+                    (int) i % 80, (int) i & 0xF, (int) i & 3);
+            }
+
+            assertThat(table.size(), is(100000L));
+            for (long i = 1; i <= 100000; i++) {
+                long slot = table.find(i << 32);
+                assertThat(slot, is(greaterThanOrEqualTo(0L)));
+                assertThat(table.moves(slot), is((int) i & 0xFFFF));
+                assertThat(table.parentMove(slot), is((int) i & 3));
+            }
+            assertThat(table.find(100001L << 32), is(lessThan(0L)));
+            assertThat(table.capacity(), is(greaterThan(100000L)));
+            assertThat(table.loadFactor(), is(lessThanOrEqualTo(0.7)));
+            assertThat(table.averageProbes(),
+                is(greaterThanOrEqualTo(1.0)));
+            assertThat((double) table.maxProbes(),
+                is(greaterThanOrEqualTo(table.averageProbes())));
+            assertThat(table.directBytes(), is(16 * table.capacity()));
+        }
+    }
+
+    @Test
+    public void growsWithinMemoryLimit() throws IOException {
+        // room for 16384 slots, reached by doubling twice
+        try (OffHeapStateTable table =
+                 new OffHeapStateTable(16 << 14, spillDirectory())) {
+            for (long i = 1; i <= 10000; i++) {
+                table.insert(table.find(i), i, 1, 2, 3,
+                    OffHeapStateTable.NO_MOVE);
+            }
+
+            assertThat(table.capacity(), is(1L << 14));
+            assertThat(table.directBytes(), is(16 * table.capacity()));
+            assertThat(table.spilledBytes(), is(0L));
+        }
+    }
+
+    @Test
+    public void spillsBeyondMemoryLimit() throws IOException {
+        OffHeapStateTable table = new OffHeapStateTable(0, spillDirectory());
+        for (long i = 1; i <= 10000; i++) {
+            table.insert(table.find(i), i, 1, 2, 3, OffHeapStateTable.NO_MOVE);
+        }
+
+        assertThat(table.directBytes(), is(0L));
+        assertThat(table.spilledBytes(), is(16 * table.capacity()));
+        assertThat(folder.getRoot().listFiles().length, is(1));
+        for (long i = 1; i <= 10000; i++) {
+            assertThat(table.estimate(table.find(i)), is(2));
+        }
+
+        table.close();
+
+        assertThat(folder.getRoot().listFiles(), is(emptyArray()));
+    }
+
+}
@@ -0,0 +1,81 @@
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class PackedBoardsTest {
+
+    private final Board board = new Board(new int[][]{
+        new int[]{1, 2, 3},
+        new int[]{4, 0, 5},
+        new int[]{7, 8, 6}});
+
+    @Test
+    public void packsLikeBoard() {
+        long state = board.packed();
+
+        assertThat(PackedBoards.block(state, 4), is(0));
+        assertThat(PackedBoards.block(state, 5), is(5));
+        assertThat(PackedBoards.hamming(state, 3), is(board.hamming()));
+        assertThat((int) PackedBoards.hash(state), is(board.hashCode()));
+    }
+
+    @Test
+    public void slidesBlocksIntoBlank() {
+        long state = PackedBoards.slide(board.packed(), 5, 4);
+        state = PackedBoards.slide(state, 8, 5);
+
+        assertThat(state, is(PackedBoards.goal(3)));
+        assertThat(PackedBoards.hamming(state, 3), is(0));
+    }
+
+    @Test
+    public void heapPollsLowestPriorityThenHamming() {
+        for (boolean wide : new boolean[]{false, true}) {
+            PackedBoards.Queue queue = PackedBoards.newQueue(
+                SolverOptions.Frontier.BINARY_HEAP, wide);
+            queue.add(1, 6, 0);
+            queue.add(2, 2, 5);
+            queue.add(3, 2, 1);
+            queue.add(4, 9, 0);
+
+            assertThat(queue.size(), is(4));
+            assertThat(queue.minPriority(), is(2));
+            assertThat(queue.poll(), is(3L));
+            assertThat(queue.poll(), is(2L));
+            assertThat(queue.poll(), is(1L));
+            assertThat(queue.poll(), is(4L));
+            assertThat(queue.size(), is(0));
+        }
+    }
+
+    @Test
+    public void bucketsPollSamePriorityInLifoOrder() {
+        PackedBoards.Queue queue = PackedBoards.newQueue(
+            SolverOptions.Frontier.BUCKET, false);
+        queue.add(1, 3, 0);
+        queue.add(2, 3, 0);
+        queue.add(3, 100, 0);
+
+        assertThat(queue.minPriority(), is(3));
+        assertThat(queue.poll(), is(2L));
+        assertThat(queue.poll(), is(1L));
+        assertThat(queue.minPriority(), is(100));
+        assertThat(queue.poll(), is(3L));
+    }
+
+    @Test
+    public void wideQueuesKeepWholeLongs() {
+        long item = PackedBoards.goal(4);
+        for (SolverOptions.Frontier frontier
+                 : SolverOptions.Frontier.values()) {
+            PackedBoards.Queue queue = PackedBoards.newQueue(frontier, true);
+            queue.add(item, 1, 0);
+            queue.add(-1L, 0, 0);
+
+            assertThat(queue.poll(), is(-1L));
+            assertThat(queue.poll(), is(item));
+        }
+    }
+
+}
@@ -0,0 +1,77 @@
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class PatternDatabaseHeuristicTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Board board = new Board(new int[][]{
+        new int[]{8, 1, 3},
+        new int[]{4, 0, 2},
+        new int[]{7, 6, 5}});
+
+    private final Heuristic heuristic = new PatternDatabaseHeuristic(
+        PatternDatabase.build(3, 1, 2, 4, 5),
+        PatternDatabase.build(3, 3, 6, 7, 8));
+
+    @Test
+    public void constructWithOverlappingDatabasesThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("databases should cover disjoint blocks");
+
+        new PatternDatabaseHeuristic(
+            PatternDatabase.build(3, 1, 2),
+            PatternDatabase.build(3, 2, 3));
+    }
+
+    @Test
+    public void estimateIsAtLeastManhattan() {
+        assertThat(heuristic.estimate(board),
+                   greaterThanOrEqualTo(board.manhattan()));
+    }
+
+    @Test
+    public void update() {
+        int estimate = heuristic.estimate(board);
+        for (Board neighbor : board.neighbors()) {
+            assertThat(
+                heuristic.update(neighbor, estimate,
+                                 neighbor.blank(), board.blank()),
+                is(heuristic.estimate(neighbor)));
+        }
+    }
+
+    @Test
+    public void movesWithPatternDatabases() {
+        SolverOptions options = new SolverOptions().heuristic(heuristic);
+
+        assertThat(new Solver(board, options).moves(),
+                   is(new Solver(board).moves()));
+    }
+
+    @Test
+    public void loadOrBuildSavesDatabases() throws IOException {
+        Path directory = folder.getRoot().toPath().resolve("pdb");
+
+        Heuristic built = PatternDatabaseHeuristic.loadOrBuild(directory, 3);
+        Heuristic loaded = PatternDatabaseHeuristic.loadOrBuild(directory, 3);
+
+        assertThat(Files.exists(directory.resolve("pdb-3-1-2-4-5.bin")),
+                   is(true));
+        assertThat(loaded.estimate(board), is(built.estimate(board)));
+    }
+
+}
@@ -0,0 +1,108 @@
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class PatternDatabaseTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void buildWithRepeatedBlocksThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(
+            "pattern database blocks should be distinct and between 1 and 8");
+
+        PatternDatabase.build(3, 1, 2, 2);
+    }
+
+    @Test
+    public void buildWithTooLargeDimensionThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage(
+            "pattern database dimension should be between 2 and 8 inclusive");
+
+        PatternDatabase.build(9, 1);
+    }
+
+    @Test
+    public void distanceInGoalPosition() {
+        PatternDatabase database = PatternDatabase.build(3, 1, 2, 4, 5);
+
+        assertThat(database.distance(new int[]{0, 1, 3, 4}), is(0));
+    }
+
+    @Test
+    public void distanceCountsOnlyPatternMoves() {
+        PatternDatabase database = PatternDatabase.build(3, 1, 2);
+
+        // 1 and 2 swapped, one of them has to step out of the row
+        assertThat(database.distance(new int[]{1, 0}), is(4));
+        // 1 two rows and two columns away, and once it is next to the
+        // corner the blank cannot get round 1 and 2 into it
+        assertThat(database.distance(new int[]{8, 1}), is(6));
+    }
+
+    @Test
+    public void distanceIsAdmissible() {
+        Board board = new Board(new int[][]{
+            new int[]{8, 1, 3},
+            new int[]{4, 0, 2},
+            new int[]{7, 6, 5}});
+        PatternDatabase database = PatternDatabase.build(3, 1, 2, 4, 5);
+
+        // 1 at 1, 2 at 5, 4 at 3, 5 at 8
+        assertThat(database.distance(new int[]{1, 5, 3, 8}),
+                   lessThanOrEqualTo(new Solver(board).moves()));
+    }
+
+    @Test
+    public void saveAndLoad() throws IOException {
+        PatternDatabase database = PatternDatabase.build(3, 3, 6, 7, 8);
+        Path path = folder.getRoot().toPath().resolve("pdb.bin");
+
+        database.save(path);
+        PatternDatabase loaded = PatternDatabase.load(path);
+
+        assertThat(loaded.dimension(), is(3));
+        assertThat(loaded.blocks(), is(new int[]{3, 6, 7, 8}));
+        int[] positions = new int[]{0, 4, 8, 2};
+        assertThat(loaded.distance(positions), is(database.distance(positions)));
+    }
+
+    @Test
+    public void loadInvalidFileThrowsException() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("invalid.bin");
+        Files.write(path, "not a database".getBytes(StandardCharsets.US_ASCII));
+
+        thrown.expect(IOException.class);
+        thrown.expectMessage("not a pattern database");
+
+        PatternDatabase.load(path);
+    }
+
+    @Test
+    public void loadOutdatedFileThrowsException() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("outdated.bin");
+        Files.write(path, new byte[]{'P', 'D', 'B', '1', 0, 0, 0, 3,
+                                     0, 0, 0, 1, 0, 0, 0, 1});
+
+        thrown.expect(IOException.class);
+        thrown.expectMessage("outdated pattern database");
+
+        PatternDatabase.load(path);
+    }
+
+}
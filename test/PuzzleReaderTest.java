@@ -0,0 +1,124 @@
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PuzzleReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static PuzzleReader reader(String input) {
+        return new PuzzleReader(Channels.newChannel(new ByteArrayInputStream(
+            input.getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    private static void assertError(String input, String message)
+        throws IOException {
+
+        try (PuzzleReader reader = reader(input)) {
+            while (reader.next() != null) {
+                continue;
+            }
+            fail("no error in " + input);
+        } catch (PuzzleFormatException e) {
+            assertThat(e.getMessage(), is(message));
+        }
+    }
+
+    @Test
+    public void readsPuzzlesOneAfterAnother() throws IOException {
+        try (PuzzleReader reader =
+                 reader("3\n 1  2  3\n 0  4  5\n 7  8  6\n2\r\n0 1\r\n3 2")) {
+            assertThat(reader.next(), is(new Board(new int[][]{
+                new int[]{1, 2, 3},
+                new int[]{0, 4, 5},
+                new int[]{7, 8, 6}})));
+            assertThat(reader.next(), is(new Board(new int[][]{
+                new int[]{0, 1},
+                new int[]{3, 2}})));
+            assertThat(reader.next(), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void readsEmptyInput() throws IOException {
+        try (PuzzleReader reader = reader(" \n\t\n")) {
+            assertThat(reader.next(), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void readsBoardsLargerThanBuffer() throws IOException {
+        int dimension = 127;
+        int[][] blocks = new int[dimension][dimension];
+        StringBuilder input = new StringBuilder().append(dimension);
+        for (int i = 0; i < dimension; i++) {
+            input.append('\n');
+            for (int j = 0; j < dimension; j++) {
+                blocks[i][j] = (i * dimension + j + 1)
+                    % (dimension * dimension);
+                input.append(' ').append(blocks[i][j]);
+            }
+        }
+        Path file = folder.getRoot().toPath().resolve("puzzles.txt");
+        Files.write(file, (input + "\n" + input).getBytes(
+            StandardCharsets.US_ASCII));
+
+        try (PuzzleReader reader = PuzzleReader.open(file)) {
+            assertThat(reader.next(), is(new Board(blocks)));
+            assertThat(reader.next(), is(new Board(blocks)));
+            assertThat(reader.next(), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void reportsUnexpectedCharacter() throws IOException {
+        assertError("2\n0 1\n3 -2\n",
+            "line 3, column 3: unexpected character '-'");
+        assertError("2\n0 1\n3 2x\n",
+            "line 3, column 4: unexpected character 'x'");
+    }
+
+    @Test
+    public void reportsBoardSizeOutOfRange() throws IOException {
+        assertError("2\n0 1\n3 2\n\n 128\n",
+            "line 5, column 2: board size should be between 2 and 127 "
+                + "(found 128)");
+    }
+
+    @Test
+    public void reportsBlockOutOfRange() throws IOException {
+        assertError("2\n0 1\n3 4\n",
+            "line 3, column 3: block 4 does not fit a board of size 2");
+    }
+
+    @Test
+    public void reportsRepeatedBlock() throws IOException {
+        assertError("2\n0 1\n3 2\n2\n0 1\n1 2\n",
+            "line 6, column 1: block 1 is repeated");
+    }
+
+    @Test
+    public void reportsTooLargeNumber() throws IOException {
+        assertError("2\n0 1\n3 99999999999\n",
+            "line 3, column 3: number is too large");
+    }
+
+    @Test
+    public void reportsTruncatedBoard() throws IOException {
+        assertError("2\n0 1\n3",
+            "line 3, column 2: input ends in the middle of a board");
+    }
+
+}
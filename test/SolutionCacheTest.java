@@ -0,0 +1,204 @@
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+public class SolutionCacheTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Board board = new Board(new int[][]{
+        new int[]{1, 2, 3},
+        new int[]{0, 4, 5},
+        new int[]{7, 8, 6}});
+
+    private final Board other = new Board(new int[][]{
+        new int[]{0, 1},
+        new int[]{3, 2}});
+
+    private final byte[] moves = {(byte) Move.RIGHT.ordinal(),
+        (byte) Move.RIGHT.ordinal(), (byte) Move.DOWN.ordinal()};
+
+    @Test
+    public void constructWithNoCapacityThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("capacity should be positive");
+
+        new SolutionCache(0);
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        SolutionCache cache = new SolutionCache(10);
+
+        assertThat(cache.get(board, 1), is(nullValue()));
+        cache.put(board, moves, 1);
+
+        assertThat(cache.get(board, 1).moves(), is(moves));
+        assertThat(cache.hits(), is(1L));
+        assertThat(cache.misses(), is(1L));
+    }
+
+    @Test
+    public void missesLongerSolutionThanAllowed() {
+        SolutionCache cache = new SolutionCache(10);
+        cache.put(board, moves, 2);
+
+        assertThat(cache.get(board, 1.5), is(nullValue()));
+        assertThat(cache.get(board, 2).suboptimality(), is(2.0));
+    }
+
+    @Test
+    public void keepsBetterSolution() {
+        SolutionCache cache = new SolutionCache(10);
+        cache.put(board, moves, 1);
+        cache.put(board, new byte[5], 2);
+
+        assertThat(cache.get(board, 2).moves(), is(moves));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        SolutionCache cache = new SolutionCache(1);
+        cache.put(board, moves, 1);
+        cache.put(other, new byte[]{(byte) Move.RIGHT.ordinal(),
+            (byte) Move.DOWN.ordinal()}, 1);
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.get(board, 1), is(nullValue()));
+    }
+
+    @Test
+    public void reloadsStoredSolutions() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("cache.bin");
+        try (SolutionCache cache = SolutionCache.open(file, 10)) {
+            cache.put(board, moves, 1);
+        }
+
+        try (SolutionCache cache = SolutionCache.open(file, 10)) {
+            assertThat(cache.size(), is(1));
+            assertThat(cache.get(board, 1).moves(), is(moves));
+        }
+    }
+
+    @Test
+    public void dropsTruncatedRecord() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("cache.bin");
+        try (SolutionCache cache = SolutionCache.open(file, 10)) {
+            cache.put(board, moves, 1);
+            cache.put(other, new byte[]{(byte) Move.RIGHT.ordinal(),
+                (byte) Move.DOWN.ordinal()}, 1);
+        }
+        try (FileChannel channel = FileChannel.open(
+                file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (SolutionCache cache = SolutionCache.open(file, 10)) {
+            assertThat(cache.size(), is(1));
+            cache.put(other, new byte[]{(byte) Move.DOWN.ordinal(),
+                (byte) Move.RIGHT.ordinal()}, 1);
+        }
+        try (SolutionCache cache = SolutionCache.open(file, 10)) {
+            assertThat(cache.size(), is(2));
+        }
+    }
+
+    @Test
+    public void dropsRecordLongerThanFile() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("cache.bin");
+        try (SolutionCache cache = SolutionCache.open(file, 10)) {
+            cache.put(board, moves, 1);
+        }
+        long valid = Files.size(file);
+        appendRecord(file, other, Integer.MAX_VALUE, new byte[0]);
+
+        try (SolutionCache cache = SolutionCache.open(file, 10)) {
+            assertThat(cache.size(), is(1));
+        }
+        assertThat(Files.size(file), is(valid));
+    }
+
+    @Test
+    public void dropsRecordWithUnknownMoves() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("cache.bin");
+        try (SolutionCache cache = SolutionCache.open(file, 10)) {
+            cache.put(board, moves, 1);
+        }
+        long valid = Files.size(file);
+        appendRecord(file, other, 2, new byte[]{0, 42});
+
+        try (SolutionCache cache = SolutionCache.open(file, 10)) {
+            assertThat(cache.size(), is(1));
+            assertThat(cache.get(other, 1), is(nullValue()));
+        }
+        assertThat(Files.size(file), is(valid));
+    }
+
+    // writes a record as put does, declaring the given number of moves
+    private static void appendRecord(Path file, Board board, int count,
+                                     byte[] moves) throws IOException {
+        String key = SolutionCache.key(board);
+        try (DataOutputStream out = new DataOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.APPEND))) {
+            out.writeInt(key.length());
+            out.writeChars(key);
+            out.writeDouble(1);
+            out.writeInt(count);
+            out.write(moves);
+        }
+    }
+
+    @Test
+    public void openNotCacheFileThrowsException() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("cache.bin");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5});
+
+        thrown.expect(IOException.class);
+        thrown.expectMessage("not a solution cache file");
+
+        SolutionCache.open(file, 10);
+    }
+
+    @Test
+    public void solverAnswersFromCache() {
+        SolutionCache cache = new SolutionCache(10);
+        SolverOptions options = new SolverOptions().cache(cache);
+        Solver first = new Solver(board, options);
+
+        Solver second = new Solver(board, options);
+
+        assertThat(second.moveSequence(), is(first.moveSequence()));
+        assertThat(second.moves(), is(3));
+        assertThat(second.stats().expanded(), is(0L));
+        assertThat(cache.hits(), is(1L));
+        assertThat(cache.misses(), is(1L));
+    }
+
+    @Test
+    public void constructiveSolutionDoesNotAnswerOptimalSearch() {
+        SolutionCache cache = new SolutionCache(10);
+        new Solver(board, new SolverOptions().cache(cache)
+            .algorithm(SolverOptions.Algorithm.CONSTRUCTIVE));
+
+        Solver solver = new Solver(board, new SolverOptions().cache(cache));
+
+        assertThat(solver.moves(), is(3));
+        assertThat(cache.hits(), is(0L));
+    }
+
+}
@@ -0,0 +1,159 @@
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class SolverServerTest {
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    private static final String SOLVABLE = "2\n0 1\n3 2\n";
+    private static final String UNSOLVABLE = "2\n0 1\n2 3\n";
+    // needs 80 moves, out of reach of A*
+    private static final String HOPELESS =
+        "4\n0 12 9 13\n15 11 10 14\n3 7 2 5\n4 8 6 1\n";
+
+    private static final SolverServer.OptionsFactory DEFAULT_OPTIONS =
+        new SolverServer.OptionsFactory() {
+            @Override
+            public SolverOptions options(int dimension) {
+                return new SolverOptions();
+            }
+        };
+
+    private SolverServer server;
+
+    @After
+    public void closeServer() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private void start(int threads, int maxConnections, long deadline)
+        throws IOException {
+
+        server = new SolverServer(0, threads, maxConnections, deadline,
+            DEFAULT_OPTIONS);
+        new Thread(server).start();
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+            server.port());
+        socket.setSoTimeout(10000);
+        return socket;
+    }
+
+    private static void send(Socket socket, String puzzles)
+        throws IOException {
+
+        Writer out = new OutputStreamWriter(socket.getOutputStream(),
+            StandardCharsets.US_ASCII);
+        out.write(puzzles);
+        out.flush();
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+            socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void constructWithoutThreadsThrowsException() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("threads should be positive");
+
+        new SolverServer(0, 0, 1, 0, DEFAULT_OPTIONS);
+    }
+
+    @Test
+    public void answersPuzzlesOfConnectionInOrder() throws IOException {
+        start(2, 4, 0);
+        try (Socket socket = connect()) {
+            send(socket, SOLVABLE + UNSOLVABLE + SOLVABLE);
+            BufferedReader in = reader(socket);
+
+            String solved = in.readLine();
+            assertThat(solved, startsWith("moves=2 "));
+            assertThat(solved, containsString("status=SOLVED"));
+            assertThat(solved, containsString("path=RD"));
+            String unsolvable = in.readLine();
+            assertThat(unsolvable, startsWith("moves=-1 "));
+            assertThat(unsolvable, containsString("status=UNSOLVABLE"));
+            assertThat(in.readLine(), startsWith("moves=2 "));
+        }
+    }
+
+    @Test
+    public void stopsSearchAtDeadline() throws IOException {
+        start(1, 4, 50);
+        try (Socket socket = connect()) {
+            send(socket, HOPELESS);
+
+            String line = reader(socket).readLine();
+            assertThat(line, startsWith("moves=-1 "));
+            assertThat(line, containsString("status=TIMED_OUT"));
+        }
+    }
+
+    @Test
+    public void turnsAwayConnectionsOverLimit() throws IOException {
+        start(1, 1, 0);
+        try (Socket first = connect(); Socket second = connect()) {
+            assertThat(reader(second).readLine(), is("error=server busy"));
+
+            send(first, SOLVABLE);
+            assertThat(reader(first).readLine(), startsWith("moves=2 "));
+        }
+    }
+
+    @Test
+    public void closeCancelsQueuedSolves()
+        throws IOException, InterruptedException {
+
+        start(1, 4, 0);
+        try (Socket busy = connect(); Socket queued = connect()) {
+            send(busy, HOPELESS);
+            Thread.sleep(100);
+            // waits for the only worker
+            send(queued, SOLVABLE);
+            Thread.sleep(100);
+
+            server.close();
+
+            assertThat(server.awaitTermination(10, TimeUnit.SECONDS),
+                is(true));
+        }
+    }
+
+    @Test
+    public void closesConnectionOnInvalidPuzzle() throws IOException {
+        start(1, 4, 0);
+        try (Socket socket = connect()) {
+            send(socket, "2\n0 1\n3 x\n");
+            BufferedReader in = reader(socket);
+
+            assertThat(in.readLine(), is("error=invalid puzzle: line 3, "
+                + "column 3: unexpected character 'x'"));
+            assertThat(in.readLine(), is(nullValue()));
+        }
+    }
+
+}
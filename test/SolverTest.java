@@ -1,17 +1,35 @@
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 public class SolverTest {
 
     @Rule
     public ExpectedException thrown = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private final int[][] solvableBlocks = new int[][]{
         new int[]{0, 1},
         new int[]{3, 2}};
@@ -59,6 +77,531 @@ public class SolverTest {
                             new Board(move2)));
     }
 
+    @Test
+    public void solutionWithBucketFrontier() {
+        SolverOptions options = new SolverOptions()
+            .frontier(SolverOptions.Frontier.BUCKET);
+        Solver solver = new Solver(new Board(solvableBlocks), options);
+
+        int[][] move1 = new int[][]{
+            new int[]{1, 0},
+            new int[]{3, 2}};
+
+        int[][] move2 = new int[][]{
+            new int[]{1, 2},
+            new int[]{3, 0}};
+
+        assertThat(solver.moves(), is(2));
+        assertThat(solver.solution(),
+                   contains(new Board(solvableBlocks), new Board(move1),
+                            new Board(move2)));
+    }
+
+    @Test
+    public void solutionForBoardTooLargeToPack() {
+        // five moves from the goal; boards up to 4x4 go to CompactAStarSearch
+        int[][] blocks = new int[][]{
+            new int[]{1, 2, 3, 4, 5},
+            new int[]{6, 7, 8, 9, 10},
+            new int[]{11, 12, 13, 19, 14},
+            new int[]{16, 17, 0, 18, 15},
+            new int[]{21, 22, 23, 24, 20}};
+        for (SolverOptions.Frontier frontier
+                : SolverOptions.Frontier.values()) {
+            Solver solver = new Solver(new Board(blocks),
+                new SolverOptions().frontier(frontier));
+
+            assertThat(solver.moves(), is(5));
+            assertThat(last(solver).isGoal(), is(true));
+        }
+    }
+
+    @Test
+    public void solutionWithIterativeDeepening() {
+        SolverOptions options = new SolverOptions()
+            .algorithm(SolverOptions.Algorithm.IDA_STAR);
+        Solver solver = new Solver(new Board(solvableBlocks), options);
+
+        int[][] move1 = new int[][]{
+            new int[]{1, 0},
+            new int[]{3, 2}};
+
+        int[][] move2 = new int[][]{
+            new int[]{1, 2},
+            new int[]{3, 0}};
+
+        assertThat(solver.moves(), is(2));
+        assertThat(solver.solution(),
+                   contains(new Board(solvableBlocks), new Board(move1),
+                            new Board(move2)));
+    }
+
+    @Test
+    public void movesWithIterativeDeepening() {
+        int[][] blocks = new int[][]{
+            new int[]{8, 1, 3},
+            new int[]{4, 0, 2},
+            new int[]{7, 6, 5}};
+        SolverOptions options = new SolverOptions()
+            .algorithm(SolverOptions.Algorithm.IDA_STAR);
+
+        assertThat(new Solver(new Board(blocks), options).moves(),
+                   is(new Solver(new Board(blocks)).moves()));
+    }
+
+    @Test
+    public void movesWithLinearConflict() {
+        int[][] blocks = new int[][]{
+            new int[]{8, 1, 3},
+            new int[]{4, 0, 2},
+            new int[]{7, 6, 5}};
+        SolverOptions options = new SolverOptions()
+            .heuristic(new LinearConflictHeuristic());
+
+        assertThat(new Solver(new Board(blocks), options).moves(),
+                   is(new Solver(new Board(blocks)).moves()));
+    }
+
+    @Test
+    public void isUnsolvableWithIterativeDeepening() {
+        SolverOptions options = new SolverOptions()
+            .algorithm(SolverOptions.Algorithm.IDA_STAR);
+        Solver solver = new Solver(new Board(unsolvableBlocks), options);
+
+        assertThat(solver.isSolvable(), is(false));
+        assertThat(solver.moves(), is(-1));
+    }
+
+    @Test
+    public void constructWithNullOptionsThrowsException() {
+        thrown.expect(NullPointerException.class);
+        thrown.expectMessage("options are null");
+
+        new Solver(new Board(solvableBlocks), null);
+    }
+
+    @Test
+    public void moveSequence() {
+        Solver solver = new Solver(new Board(solvableBlocks));
+
+        assertThat(solver.moveSequence(), is("RD"));
+    }
+
+    @Test
+    public void moveSequenceForUnsolvableBoard() {
+        Solver solver = new Solver(new Board(unsolvableBlocks));
+
+        assertThat(solver.moveSequence(), is(nullValue()));
+    }
+
+    @Test
+    public void solutionCanBeIteratedAgain() {
+        Solver solver = new Solver(new Board(solvableBlocks));
+        Iterable<Board> solution = solver.solution();
+
+        int boards = 0;
+        for (Board board : solution) {
+            boards++;
+        }
+        assertThat(boards, is(3));
+        assertThat(solution.iterator().next(),
+            is(new Board(solvableBlocks)));
+    }
+
+    // one of the two 3x3 boards needing 31 moves
+    private final int[][] hardBlocks = new int[][]{
+        new int[]{8, 6, 7},
+        new int[]{2, 5, 4},
+        new int[]{3, 0, 1}};
+
+    @Test
+    public void weightedSearchStaysWithinBound() {
+        for (SolverOptions.Algorithm algorithm : new SolverOptions.Algorithm[]{
+                SolverOptions.Algorithm.A_STAR,
+                SolverOptions.Algorithm.IDA_STAR}) {
+            Solver solver = new Solver(new Board(hardBlocks),
+                new SolverOptions().algorithm(algorithm).weight(1.5));
+
+            assertThat(solver.moves(), is(lessThanOrEqualTo(46)));
+            assertThat(solver.stats().suboptimality(), is(1.5));
+            assertThat(solver.moveSequence().length(), is(solver.moves()));
+        }
+    }
+
+    @Test
+    public void anytimeSearchEndsOptimal() {
+        final List<Integer> lengths = new ArrayList<>();
+        SolverOptions options = new SolverOptions()
+            .algorithm(SolverOptions.Algorithm.ANYTIME)
+            .weight(3)
+            .listener(new SearchListener() {
+                public void progress(SearchStats stats) {
+                }
+
+                public void improved(SearchStats stats, String moves) {
+                    lengths.add(moves.length());
+                }
+
+                public void finished(SearchStats stats) {
+                }
+            });
+
+        Solver solver = new Solver(new Board(hardBlocks), options);
+
+        assertThat(solver.moves(), is(31));
+        assertThat(solver.stats().suboptimality(), is(1.0));
+        assertThat(lengths.get(lengths.size() - 1), is(31));
+        for (int i = 1; i < lengths.size(); i++) {
+            assertThat(lengths.get(i), is(lessThan(lengths.get(i - 1))));
+        }
+    }
+
+    @Test
+    public void anytimeSearchReturnsFirstSolutionPastTimeLimit() {
+        Solver solver = new Solver(new Board(hardBlocks), new SolverOptions()
+            .algorithm(SolverOptions.Algorithm.ANYTIME)
+            .weight(5)
+            .timeLimit(1));
+
+        assertThat(solver.isSolvable(), is(true));
+        assertThat((double) solver.moves(),
+            is(lessThanOrEqualTo(31 * solver.stats().suboptimality())));
+    }
+
+    @Test
+    public void constructiveSolutionReachesGoal() {
+        Random random = new Random(42);
+        for (int dimension = 2; dimension <= 40; dimension++) {
+            Board initial = randomSolvableBoard(dimension, random);
+            Solver solver = new Solver(initial, new SolverOptions()
+                .algorithm(SolverOptions.Algorithm.CONSTRUCTIVE));
+
+            MutableBoard board = new MutableBoard(initial);
+            for (char letter : solver.moveSequence().toCharArray()) {
+                board.applyMove(move(letter));
+            }
+            assertThat(board.isGoal(), is(true));
+        }
+    }
+
+    @Test
+    public void constructiveSearchStreamsMoves() {
+        final StringBuilder streamed = new StringBuilder();
+        Board initial = randomSolvableBoard(10, new Random(7));
+        SolverOptions options = new SolverOptions()
+            .algorithm(SolverOptions.Algorithm.CONSTRUCTIVE)
+            .moveListener(new MoveListener() {
+                public void moved(Move move) {
+                    streamed.append(move.letter());
+                }
+            });
+
+        Solver solver = new Solver(initial, options);
+
+        assertThat(streamed.toString(), is(solver.moveSequence()));
+    }
+
+    @Test
+    public void moveListenerGetsSearchedSolution() {
+        final StringBuilder streamed = new StringBuilder();
+        SolverOptions options = new SolverOptions()
+            .moveListener(new MoveListener() {
+                public void moved(Move move) {
+                    streamed.append(move.letter());
+                }
+            });
+
+        new Solver(new Board(solvableBlocks), options);
+
+        assertThat(streamed.toString(), is("RD"));
+    }
+
+    private static Board randomSolvableBoard(int dimension, Random random) {
+        List<Integer> blocks = new ArrayList<>();
+        for (int i = 0; i < dimension * dimension; i++) {
+            blocks.add(i);
+        }
+        Collections.shuffle(blocks, random);
+
+        int[][] rows = new int[dimension][dimension];
+        for (int i = 0; i < blocks.size(); i++) {
+            rows[i / dimension][i % dimension] = blocks.get(i);
+        }
+        Board board = new Board(rows);
+
+        return board.isSolvable() ? board : board.twin();
+    }
+
+    // solves random 3x3 boards and the 31-move board as the default
+    // search does, ending on the goal
+    private void assertOptimal(SolverOptions options, Random random) {
+        for (int i = 0; i < 20; i++) {
+            Board initial = randomSolvableBoard(3, random);
+
+            Solver solver = new Solver(initial, options);
+
+            assertThat(solver.moves(), is(new Solver(initial).moves()));
+            assertThat(last(solver).isGoal(), is(true));
+        }
+        assertThat(new Solver(new Board(hardBlocks), options).moves(),
+            is(31));
+    }
+
+    private static Board last(Solver solver) {
+        Board last = null;
+        for (Board board : solver.solution()) {
+            last = board;
+        }
+
+        return last;
+    }
+
+    private static Move move(char letter) {
+        for (Move move : Move.values()) {
+            if (move.letter() == letter) {
+                return move;
+            }
+        }
+
+        throw new IllegalArgumentException("unknown move " + letter);
+    }
+
+    // one of the 4x4 boards needing 80 moves, out of reach of A*
+    private final int[][] hopelessBlocks = new int[][]{
+        new int[]{0, 12, 9, 13},
+        new int[]{15, 11, 10, 14},
+        new int[]{3, 7, 2, 5},
+        new int[]{4, 8, 6, 1}};
+
+    @Test
+    public void statusOfSolvedAndUnsolvableBoards() {
+        assertThat(new Solver(new Board(solvableBlocks)).status(),
+            is(Solver.Status.SOLVED));
+        assertThat(new Solver(new Board(unsolvableBlocks)).status(),
+            is(Solver.Status.UNSOLVABLE));
+    }
+
+    @Test
+    public void searchStopsWhenNodeBudgetIsSpent() {
+        for (SolverOptions.Algorithm algorithm
+                : SolverOptions.Algorithm.values()) {
+            Solver solver = new Solver(new Board(hopelessBlocks),
+                new SolverOptions().algorithm(algorithm).nodeBudget(5000));
+
+            if (algorithm == SolverOptions.Algorithm.CONSTRUCTIVE) {
+                assertThat(solver.status(), is(Solver.Status.SOLVED));
+            } else {
+                assertThat(solver.status(), is(Solver.Status.OUT_OF_BUDGET));
+                assertThat(solver.isSolvable(), is(false));
+                assertThat(solver.stats().expanded(), is(5000L));
+            }
+        }
+    }
+
+    @Test
+    public void searchStopsWhenTokenExpires() {
+        Solver solver = new Solver(new Board(hopelessBlocks),
+            new SolverOptions(),
+            new CancellationToken(50, TimeUnit.MILLISECONDS));
+
+        assertThat(solver.status(), is(Solver.Status.TIMED_OUT));
+        assertThat(solver.moves(), is(-1));
+    }
+
+    @Test
+    public void cancelledTokenStopsSearch() {
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+
+        Solver solver = new Solver(new Board(solvableBlocks),
+            new SolverOptions(), token);
+
+        assertThat(solver.status(), is(Solver.Status.CANCELLED));
+    }
+
+    @Test
+    public void solveAsync() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Solver> future = Solver.solveAsync(new Board(solvableBlocks),
+                new SolverOptions(), null, executor);
+
+            assertThat(future.get(5, TimeUnit.SECONDS).moves(), is(2));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void cancelledSearchReleasesThread() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CancellationToken token = new CancellationToken();
+            Future<Solver> hopeless = Solver.solveAsync(
+                new Board(hopelessBlocks), new SolverOptions(), token, executor);
+            Future<Solver> next = Solver.solveAsync(new Board(solvableBlocks),
+                new SolverOptions(), null, executor);
+            Thread.sleep(50);
+
+            token.cancel();
+
+            assertThat(hopeless.get(5, TimeUnit.SECONDS).status(),
+                is(Solver.Status.CANCELLED));
+            assertThat(next.get(5, TimeUnit.SECONDS).moves(), is(2));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void parallelSearchFindsShortestSolutions() {
+        for (SolverOptions.Algorithm algorithm : new SolverOptions.Algorithm[]{
+                SolverOptions.Algorithm.A_STAR,
+                SolverOptions.Algorithm.IDA_STAR}) {
+            assertOptimal(
+                new SolverOptions().algorithm(algorithm).threads(3),
+                new Random(11));
+        }
+    }
+
+    @Test
+    public void parallelSearchStopsWhenNodeBudgetIsSpent() {
+        for (SolverOptions.Algorithm algorithm : new SolverOptions.Algorithm[]{
+                SolverOptions.Algorithm.A_STAR,
+                SolverOptions.Algorithm.IDA_STAR}) {
+            Solver solver = new Solver(new Board(hopelessBlocks),
+                new SolverOptions().algorithm(algorithm).threads(2)
+                    .nodeBudget(5000));
+
+            assertThat(solver.status(), is(Solver.Status.OUT_OF_BUDGET));
+            assertThat(solver.stats().expanded(),
+                is(greaterThanOrEqualTo(5000L)));
+        }
+    }
+
+    @Test
+    public void parallelSearchStopsWhenTokenExpires() {
+        for (SolverOptions.Algorithm algorithm : new SolverOptions.Algorithm[]{
+                SolverOptions.Algorithm.A_STAR,
+                SolverOptions.Algorithm.IDA_STAR}) {
+            Solver solver = new Solver(new Board(hopelessBlocks),
+                new SolverOptions().algorithm(algorithm).threads(2),
+                new CancellationToken(50, TimeUnit.MILLISECONDS));
+
+            assertThat(solver.status(), is(Solver.Status.TIMED_OUT));
+        }
+    }
+
+    @Test
+    public void bidirectionalSearchFindsShortestSolutions() {
+        SolverOptions options = new SolverOptions()
+            .algorithm(SolverOptions.Algorithm.BIDIRECTIONAL);
+
+        assertOptimal(options, new Random(13));
+        assertThat(new Solver(new Board(solvableBlocks), options)
+            .moveSequence(), is("RD"));
+    }
+
+    @Test
+    public void offHeapSearchFindsShortestSolutions() {
+        Random random = new Random(17);
+        // a single byte of direct memory spills the whole table
+        for (long memory : new long[]{1, 1 << 20}) {
+            assertOptimal(new SolverOptions()
+                .offHeapMemory(memory)
+                .spillDirectory(folder.getRoot().toPath()), random);
+        }
+        assertThat(folder.getRoot().listFiles(), is(emptyArray()));
+    }
+
+    @Test
+    public void offHeapSearchReportsClosedSet() {
+        SolverOptions options = new SolverOptions()
+            .offHeapMemory(1)
+            .spillDirectory(folder.getRoot().toPath());
+
+        SearchStats stats = new Solver(new Board(hardBlocks), options).stats();
+
+        assertThat(stats.closedSetSize(), is(greaterThan(stats.expanded())));
+        assertThat(stats.closedSetLoad(), is(greaterThan(0.0)));
+        assertThat(stats.closedSetLoad(), is(lessThanOrEqualTo(0.7)));
+        assertThat(stats.averageProbes(), is(greaterThanOrEqualTo(1.0)));
+        assertThat((double) stats.maxProbes(),
+            is(greaterThanOrEqualTo(stats.averageProbes())));
+        assertThat(stats.spilledBytes(), is(greaterThan(0L)));
+    }
+
+    @Test
+    public void negativeOffHeapMemoryThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("off-heap memory should not be negative");
+
+        new SolverOptions().offHeapMemory(-1);
+    }
+
+    @Test
+    public void noThreadsThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("threads should be positive");
+
+        new SolverOptions().threads(0);
+    }
+
+    @Test
+    public void weightBelowOneThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("weight should be a finite number not less than 1");
+
+        new SolverOptions().weight(0.5);
+    }
+
+    @Test
+    public void statsCountSearchWork() {
+        for (SolverOptions.Algorithm algorithm : new SolverOptions.Algorithm[]{
+                SolverOptions.Algorithm.A_STAR,
+                SolverOptions.Algorithm.IDA_STAR,
+                SolverOptions.Algorithm.ANYTIME}) {
+            Solver solver = new Solver(new Board(solvableBlocks),
+                new SolverOptions().algorithm(algorithm));
+            SearchStats stats = solver.stats();
+
+            assertThat(stats.expanded(), is(2L));
+            assertThat(stats.generated(), greaterThan(stats.expanded()));
+            assertThat(stats.bound(), is(2));
+            assertThat(stats.elapsedNanos(), greaterThan(0L));
+        }
+    }
+
+    @Test
+    public void listenerIsCalledWhenFinished() {
+        final List<SearchStats> finished = new ArrayList<>();
+        SolverOptions options = new SolverOptions()
+            .progressInterval(0)
+            .listener(new SearchListener() {
+                public void progress(SearchStats stats) {
+                }
+
+                public void improved(SearchStats stats, String moves) {
+                }
+
+                public void finished(SearchStats stats) {
+                    finished.add(stats);
+                }
+            });
+
+        Solver solver = new Solver(new Board(solvableBlocks), options);
+
+        assertThat(finished, contains(solver.stats()));
+    }
+
+    @Test
+    public void negativeProgressIntervalThrowsException() {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("progress interval should not be negative");
+
+        new SolverOptions().progressInterval(-1);
+    }
+
     @Test
     public void isUnsolvable() {
         Solver solver = new Solver(new Board(unsolvableBlocks));